@@ -0,0 +1,73 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.RequestBookingCreateDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.gateway.booking.BookingClient;
+import ru.practicum.shareit.gateway.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.gateway.booking.dto.BookingState;
+
+/**
+ * BookingClient без HTTP: те же вызовы BookingService и те же ответы, что у BookingController сервера.
+ */
+@Service
+@ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "embedded")
+public class EmbeddedBookingClient implements BookingClient {
+
+    private static final String API_PREFIX = "/bookings";
+
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    private final EmbeddedServer server;
+
+    private final BookingService bookingService;
+
+    public EmbeddedBookingClient(EmbeddedServer server, BookingService bookingService) {
+        this.server = server;
+        this.bookingService = bookingService;
+    }
+
+    @Override
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                              String cursor) {
+        return server.exchange(HttpMethod.GET, API_PREFIX, userId, () -> toResponse(
+                bookingService.getAllBookingsToUser(userId, state.name(), from, size, cursor)));
+    }
+
+    @Override
+    public ResponseEntity<Object> approveBooking(long userId, long bookingId, boolean approved) {
+        return server.exchange(HttpMethod.PATCH, API_PREFIX + "/" + bookingId, userId,
+                () -> ResponseEntity.ok(bookingService.updateBookingStatus(userId, bookingId, approved)));
+    }
+
+    @Override
+    public ResponseEntity<Object> getBookingsForOwner(long userId, BookingState state, Integer from, Integer size,
+                                                      String cursor) {
+        return server.exchange(HttpMethod.GET, API_PREFIX + "/owner", userId, () -> toResponse(
+                bookingService.getAllItemBookingToUser(userId, state.name(), from, size, cursor)));
+    }
+
+    @Override
+    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+        return server.exchange(HttpMethod.POST, API_PREFIX, userId, () -> ResponseEntity.ok(
+                bookingService.createBooking(server.convert(requestDto, RequestBookingCreateDto.class), userId)));
+    }
+
+    @Override
+    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+        return server.exchange(HttpMethod.GET, API_PREFIX + "/" + bookingId, userId,
+                () -> ResponseEntity.ok(bookingService.getBooking(userId, bookingId)));
+    }
+
+    private static ResponseEntity<?> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(HEADER_NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
+    }
+}
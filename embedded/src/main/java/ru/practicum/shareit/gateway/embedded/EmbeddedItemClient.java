@@ -0,0 +1,77 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.gateway.item.ItemClient;
+import ru.practicum.shareit.gateway.item.dto.CreateCommentDto;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPage;
+import ru.practicum.shareit.item.service.ItemService;
+
+/**
+ * ItemClient без HTTP: те же вызовы ItemService и те же ответы, что у ItemController сервера.
+ */
+@Service
+@ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "embedded")
+public class EmbeddedItemClient implements ItemClient {
+
+    private static final String API_PREFIX = "/items";
+
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
+    private final EmbeddedServer server;
+
+    private final ItemService itemService;
+
+    public EmbeddedItemClient(EmbeddedServer server, ItemService itemService) {
+        this.server = server;
+        this.itemService = itemService;
+    }
+
+    @Override
+    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
+        return server.exchange(HttpMethod.POST, API_PREFIX, userId, () -> ResponseEntity.ok(
+                itemService.createItem(userId, server.convert(itemDto, ru.practicum.shareit.item.dto.ItemDto.class))));
+    }
+
+    @Override
+    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
+        return server.exchange(HttpMethod.PATCH, API_PREFIX + "/" + itemId, userId, () -> ResponseEntity.ok(
+                itemService.updateItem(userId, itemId,
+                        server.convert(itemDto, ru.practicum.shareit.item.dto.ItemDto.class))));
+    }
+
+    @Override
+    public ResponseEntity<Object> getItem(long userId, long itemId) {
+        return server.exchange(HttpMethod.GET, API_PREFIX + "/" + itemId, userId,
+                () -> ResponseEntity.ok(itemService.getItem(itemId, userId)));
+    }
+
+    @Override
+    public ResponseEntity<Object> getItemUser(long userId) {
+        return server.exchange(HttpMethod.GET, API_PREFIX, userId,
+                () -> ResponseEntity.ok(itemService.getItemUser(userId)));
+    }
+
+    @Override
+    public ResponseEntity<Object> searchItem(long userId, String text, Integer from, Integer size, String cursor) {
+        return server.exchange(HttpMethod.GET, API_PREFIX + "/search", userId, () -> {
+            ItemPage page = itemService.searchItem(userId, text, from, size, cursor);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(HEADER_NEXT_CURSOR, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        });
+    }
+
+    @Override
+    public ResponseEntity<Object> addComment(long userId, CreateCommentDto createCommentDto, long itemId) {
+        return server.exchange(HttpMethod.POST, API_PREFIX + "/" + itemId + "/comment", userId,
+                () -> ResponseEntity.ok(itemService.addComment(userId,
+                        server.convert(createCommentDto, ru.practicum.shareit.item.dto.CreateCommentDto.class),
+                        itemId)));
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.gateway.request.ItemRequestClient;
+import ru.practicum.shareit.gateway.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.request.service.ItemRequestService;
+
+/**
+ * ItemRequestClient без HTTP: те же вызовы ItemRequestService и те же ответы, что у ItemRequestController сервера.
+ */
+@Service
+@ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "embedded")
+public class EmbeddedItemRequestClient implements ItemRequestClient {
+
+    private static final String API_PREFIX = "/requests";
+
+    private final EmbeddedServer server;
+
+    private final ItemRequestService requestService;
+
+    public EmbeddedItemRequestClient(EmbeddedServer server, ItemRequestService requestService) {
+        this.server = server;
+        this.requestService = requestService;
+    }
+
+    @Override
+    public ResponseEntity<Object> createItemRequest(long userId, CreateItemRequestDto dto) {
+        return server.exchange(HttpMethod.POST, API_PREFIX, userId, () -> ResponseEntity.ok(
+                requestService.createItemRequest(userId,
+                        server.convert(dto, ru.practicum.shareit.request.dto.CreateItemRequestDto.class))));
+    }
+
+    @Override
+    public ResponseEntity<Object> getItemRequests(long userId) {
+        return server.exchange(HttpMethod.GET, API_PREFIX, userId,
+                () -> ResponseEntity.ok(requestService.getItemRequests(userId)));
+    }
+
+    @Override
+    public ResponseEntity<Object> getAllRequests(long userId, int from, int size) {
+        return server.exchange(HttpMethod.GET, API_PREFIX + "/all", userId,
+                () -> ResponseEntity.ok(requestService.getAllItemRequests(userId, from, size)));
+    }
+
+    @Override
+    public ResponseEntity<Object> getItemRequest(long userId, long requestId) {
+        return server.exchange(HttpMethod.GET, API_PREFIX + "/" + requestId, userId,
+                () -> ResponseEntity.ok(requestService.getItemRequest(userId, requestId)));
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.PathMatcher;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
+import ru.practicum.shareit.config.ReadYourWrites;
+import ru.practicum.shareit.exception.GlobalExceptionHandler;
+import ru.practicum.shareit.gateway.client.ResilienceProperties;
+import ru.practicum.shareit.gateway.limit.AdaptiveConcurrencyLimit;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Вызов сервиса сервера вместо HTTP-запроса к нему. Здесь делается то, что в двух процессах делают
+ * фильтры и обработчик исключений сервера: изменение пользователя закрепляет его чтения за основной БД
+ * (ReadYourWrites, если включены реплики), а исключение сервиса превращается в ответ с тем же статусом и телом,
+ * что дает GlobalExceptionHandler. Исключения, которые сервер не обрабатывает, уходят в обработку ошибок
+ * гейтвея и, как и в двух процессах, дают 500.
+ * Время вызова передается адаптивному пределу одновременных запросов, как время HTTP-ответа
+ * в ConcurrencyLimitInterceptor, с тем же делением на маршруты shareit-server.resilience.routes.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "embedded")
+public class EmbeddedServer {
+
+    private static final Set<HttpMethod> READ_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS);
+
+    private static final String OTHER_ROUTE = "other";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final GlobalExceptionHandler exceptionHandler;
+
+    private final ExceptionHandlerMethodResolver exceptionHandlerMethods;
+
+    private final ReadYourWrites readYourWrites;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final ResilienceProperties resilienceProperties;
+
+    private final ObjectMapper objectMapper;
+
+    public EmbeddedServer(GlobalExceptionHandler exceptionHandler, ObjectProvider<ReadYourWrites> readYourWrites,
+                          AdaptiveConcurrencyLimit concurrencyLimit, ResilienceProperties resilienceProperties,
+                          ObjectMapper objectMapper) {
+        this.exceptionHandler = exceptionHandler;
+        this.exceptionHandlerMethods =
+                new ExceptionHandlerMethodResolver(ClassUtils.getUserClass(exceptionHandler.getClass()));
+        this.readYourWrites = readYourWrites.getIfAvailable();
+        this.concurrencyLimit = concurrencyLimit;
+        this.resilienceProperties = resilienceProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param method метод и path запроса, которым тот же вызов шел бы на сервер
+     * @param userId X-Sharer-User-Id этого запроса или null
+     * @param call   вызов сервиса и ответ, который вернул бы контроллер сервера
+     */
+    public ResponseEntity<Object> exchange(HttpMethod method, String path, Long userId,
+                                           Supplier<ResponseEntity<?>> call) {
+        boolean write = !READ_METHODS.contains(method);
+        if (readYourWrites != null) {
+            readYourWrites.begin(userId, write);
+        }
+        long started = System.nanoTime();
+        try {
+            ResponseEntity<?> response = call.get();
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .body(response.getBody());
+        } catch (RuntimeException e) {
+            return handle(e);
+        } finally {
+            concurrencyLimit.onResponse(findRoute(path), System.nanoTime() - started);
+            if (readYourWrites != null) {
+                readYourWrites.end(userId, write);
+            }
+        }
+    }
+
+    /**
+     * DTO гейтвея в DTO сервера с тем же JSON: поля сопоставляются по именам, лишние отбрасываются,
+     * как при разборе тела запроса на сервере.
+     */
+    public <T> T convert(Object dto, Class<T> type) {
+        return objectMapper.convertValue(dto, type);
+    }
+
+    private ResponseEntity<Object> handle(RuntimeException e) {
+        Method method = exceptionHandlerMethods.resolveMethodByThrowable(e);
+        if (method == null) {
+            throw e;
+        }
+        Object body = ReflectionUtils.invokeMethod(method, exceptionHandler, e);
+        ResponseStatus status = AnnotatedElementUtils.findMergedAnnotation(method, ResponseStatus.class);
+        return ResponseEntity.status(status != null ? status.code() : HttpStatus.OK).body(body);
+    }
+
+    private String findRoute(String path) {
+        for (ResilienceProperties.Route route : resilienceProperties.getRoutes()) {
+            if (pathMatcher.match(route.getPattern(), path)) {
+                return route.getName();
+            }
+        }
+        return OTHER_ROUTE;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.ServletContextInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Фильтры сервера, от которых зависит ответ клиенту. Контекст сервера без веб-сервера, и его фильтры
+ * регистрируются в гейтвее. Остальные фильтры сервера здесь не нужны: ReadYourWrites выставляет
+ * EmbeddedServer на каждый вызов сервиса, а вместо shareit.db-admission одновременные запросы
+ * ограничивает shareit-gateway.concurrency-limit.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "embedded")
+public class EmbeddedServerConfig {
+
+    /**
+     * ETag из EtagConfig сервера: в двух процессах гейтвей передает его клиенту вместе с ответом.
+     */
+    @Bean
+    public ServletContextInitializer serverEtagFilter(
+            @Qualifier("etagFilter") FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter) {
+        return etagFilter::onStartup;
+    }
+}
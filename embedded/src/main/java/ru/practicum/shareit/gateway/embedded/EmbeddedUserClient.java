@@ -0,0 +1,55 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.gateway.user.UserClient;
+import ru.practicum.shareit.gateway.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+/**
+ * UserClient без HTTP: те же вызовы UserService и те же ответы, что у UserController сервера.
+ * Запросы к пользователям гейтвей отправляет без X-Sharer-User-Id, поэтому и здесь userId не передается.
+ */
+@Service
+@ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "embedded")
+public class EmbeddedUserClient implements UserClient {
+
+    private static final String API_PREFIX = "/users";
+
+    private final EmbeddedServer server;
+
+    private final UserService userService;
+
+    public EmbeddedUserClient(EmbeddedServer server, UserService userService) {
+        this.server = server;
+        this.userService = userService;
+    }
+
+    @Override
+    public ResponseEntity<Object> getUser(long id) {
+        return server.exchange(HttpMethod.GET, API_PREFIX + "/" + id, null,
+                () -> ResponseEntity.ok(userService.getUser(id)));
+    }
+
+    @Override
+    public ResponseEntity<Object> createUser(UserDto dto) {
+        return server.exchange(HttpMethod.POST, API_PREFIX, null, () -> ResponseEntity.ok(
+                userService.createUser(server.convert(dto, ru.practicum.shareit.user.dto.UserDto.class))));
+    }
+
+    @Override
+    public ResponseEntity<Object> updateUser(long id, UserDto dto) {
+        return server.exchange(HttpMethod.PATCH, API_PREFIX + "/" + id, null, () -> ResponseEntity.ok(
+                userService.updateUser(id, server.convert(dto, ru.practicum.shareit.user.dto.UserDto.class))));
+    }
+
+    @Override
+    public void deleteUser(long id) {
+        server.exchange(HttpMethod.DELETE, API_PREFIX + "/" + id, null, () -> {
+            userService.deleteUser(id);
+            return ResponseEntity.ok().build();
+        });
+    }
+}
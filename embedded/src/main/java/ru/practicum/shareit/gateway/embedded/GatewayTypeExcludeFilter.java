@@ -0,0 +1,30 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import ru.practicum.shareit.gateway.ShareItGateway;
+
+/**
+ * Пакет гейтвея вложен в пакет ShareItServer, поэтому без этого фильтра сервер подхватил бы при сканировании
+ * контроллеры и настройки гейтвея.
+ */
+class GatewayTypeExcludeFilter extends TypeExcludeFilter {
+
+    private static final String GATEWAY_PACKAGE = ShareItGateway.class.getPackageName() + ".";
+
+    @Override
+    public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+        return metadataReader.getClassMetadata().getClassName().startsWith(GATEWAY_PACKAGE);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj != null && getClass() == obj.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
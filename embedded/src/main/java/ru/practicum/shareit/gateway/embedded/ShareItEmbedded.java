@@ -0,0 +1,41 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.gateway.ShareItGateway;
+
+/**
+ * Гейтвей и сервер в одной JVM, без HTTP между ними. Сервер - родительский контекст без веб-сервера:
+ * сервисы, репозитории, БД и фоновые задачи. Гейтвей - дочерний веб-контекст на порту гейтвея, его клиенты
+ * (Embedded*Client) берут сервисы сервера из родителя. Каждый контекст читает свой файл настроек,
+ * гейтвей дополнительно - shareit-embedded.properties.
+ */
+public class ShareItEmbedded {
+
+    static final String SERVER_CONFIG = "classpath:/shareit-server.properties";
+
+    static final String GATEWAY_CONFIG = "classpath:/shareit-gateway.properties,classpath:/shareit-embedded.properties";
+
+    public static void main(String[] args) {
+        application().run(args);
+    }
+
+    static SpringApplicationBuilder application() {
+        return new SpringApplicationBuilder(ShareItServer.class)
+                .properties("spring.config.location=" + SERVER_CONFIG)
+                .initializers(ShareItEmbedded::excludeGateway)
+                .child(ShareItGateway.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("spring.config.location=" + GATEWAY_CONFIG);
+    }
+
+    /**
+     * Убирает классы гейтвея из сканирования компонентов сервера, на classpath этого модуля они есть всегда.
+     */
+    static void excludeGateway(ConfigurableApplicationContext server) {
+        server.getBeanFactory()
+                .registerSingleton(GatewayTypeExcludeFilter.class.getName(), new GatewayTypeExcludeFilter());
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.gateway.ShareItGateway;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Гейтвей с сервером в одном из двух режимов, каждый на своей базе H2 в памяти.
+ */
+final class Deployment implements AutoCloseable {
+
+    private static final String[] QUIET = {
+            "--logging.level.org.springframework.web.client.RestTemplate=INFO",
+            "--shareit-gateway.rate-limit.enabled=false"
+    };
+
+    private final ConfigurableApplicationContext server;
+
+    private final ServletWebServerApplicationContext gateway;
+
+    private Deployment(ConfigurableApplicationContext server, ServletWebServerApplicationContext gateway) {
+        this.server = server;
+        this.gateway = gateway;
+    }
+
+    /**
+     * Сервер и гейтвей - отдельные приложения, гейтвей ходит на сервер по HTTP.
+     */
+    static Deployment twoProcess(String database) {
+        ServletWebServerApplicationContext server = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(ShareItServer.class)
+                        .initializers(ShareItEmbedded::excludeGateway)
+                        .run("--server.port=0",
+                                "--spring.config.location=" + ShareItEmbedded.SERVER_CONFIG,
+                                "--spring.datasource.url=jdbc:h2:mem:" + database);
+        ServletWebServerApplicationContext gateway = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(ShareItGateway.class)
+                        .properties("spring.config.location=classpath:/shareit-gateway.properties")
+                        .run(args("--shareit-server.url=http://localhost:" + server.getWebServer().getPort()));
+        return new Deployment(server, gateway);
+    }
+
+    /**
+     * Сервер и гейтвей в одной JVM, как их запускает ShareItEmbedded.
+     */
+    static Deployment embedded(String database) {
+        ServletWebServerApplicationContext gateway = (ServletWebServerApplicationContext) ShareItEmbedded.application()
+                .run(args("--spring.datasource.url=jdbc:h2:mem:" + database));
+        return new Deployment((ConfigurableApplicationContext) gateway.getParent(), gateway);
+    }
+
+    URI uri(String path) {
+        return URI.create("http://localhost:" + gateway.getWebServer().getPort() + path);
+    }
+
+    ConfigurableApplicationContext getServer() {
+        return server;
+    }
+
+    ServletWebServerApplicationContext getGateway() {
+        return gateway;
+    }
+
+    @Override
+    public void close() {
+        gateway.close();
+        server.close();
+    }
+
+    private static String[] args(String... args) {
+        return Stream.of(new String[]{"--server.port=0"}, args, QUIET).flatMap(Arrays::stream).toArray(String[]::new);
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Гейтвей и сервер в двух процессах и в одной JVM (ShareItEmbedded): время ответа одному клиенту
+ * и пропускная способность при CLIENTS одновременных клиентах. Запросы - карточки пользователя и вещи:
+ * работы на сервере у них немного, поэтому заметна доля самого перехода гейтвей - сервер. Пропускная
+ * способность только выводится: когда клиенты и оба приложения делят несколько ядер, она упирается
+ * в процессор, а одинаковые запросы в двух процессах еще и объединяет single-flight гейтвея.
+ */
+@Tag("benchmark")
+@Slf4j
+class EmbeddedBenchmarkTest {
+
+    private static final int CLIENTS = 8;
+
+    private static final int WARM_UP = 500;
+
+    private static final int REQUESTS_PER_CLIENT = 1_000;
+
+    @Test
+    void embedded_ShouldAnswerSingleClientFasterThanTwoProcesses() throws Exception {
+        Result twoProcess;
+        try (Deployment deployment = Deployment.twoProcess("benchmark-two-process")) {
+            twoProcess = run(deployment);
+        }
+        Result embedded;
+        try (Deployment deployment = Deployment.embedded("benchmark-embedded")) {
+            embedded = run(deployment);
+        }
+
+        log.info("Два процесса: {} мкс на запрос, {} запросов/с; одна JVM: {} мкс на запрос, {} запросов/с",
+                twoProcess.micros(), twoProcess.throughput(), embedded.micros(), embedded.throughput());
+
+        assertTrue(embedded.micros() < twoProcess.micros());
+    }
+
+    private Result run(Deployment deployment) throws Exception {
+        try (HttpClient client = HttpClient.newHttpClient();
+             ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            seed(client, deployment);
+            List<URI> uris = List.of(deployment.uri("/users/1"), deployment.uri("/items/1"));
+            runAll(clients, () -> send(client, uris, WARM_UP));
+
+            long micros = send(client, uris, REQUESTS_PER_CLIENT) / REQUESTS_PER_CLIENT / 1_000;
+
+            long started = System.nanoTime();
+            runAll(clients, () -> send(client, uris, REQUESTS_PER_CLIENT));
+            long elapsed = System.nanoTime() - started;
+            return new Result(micros, CLIENTS * REQUESTS_PER_CLIENT * TimeUnit.SECONDS.toNanos(1) / elapsed);
+        }
+    }
+
+    private static void runAll(ExecutorService clients, Callable<Long> task) throws Exception {
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            futures.add(clients.submit(task));
+        }
+        for (Future<Long> future : futures) {
+            future.get();
+        }
+    }
+
+    private static long send(HttpClient client, List<URI> uris, int count) throws Exception {
+        long nanos = 0;
+        for (int i = 0; i < count; i++) {
+            HttpRequest request = HttpRequest.newBuilder(uris.get(i % uris.size()))
+                    .header("X-Sharer-User-Id", "1")
+                    .build();
+            long started = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            nanos += System.nanoTime() - started;
+            assertEquals(200, response.statusCode());
+        }
+        return nanos;
+    }
+
+    private static void seed(HttpClient client, Deployment deployment) throws Exception {
+        post(client, deployment.uri("/users"), "{\"name\":\"Owner\",\"email\":\"owner@mail.ru\"}");
+        post(client, deployment.uri("/items"), "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}");
+    }
+
+    private static void post(HttpClient client, URI uri, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .header("X-Sharer-User-Id", "1")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        assertEquals(200, client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    private record Result(long micros, long throughput) {
+    }
+}
@@ -0,0 +1,160 @@
+package ru.practicum.shareit.gateway.embedded;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.gateway.client.GatewayClientConfig;
+import ru.practicum.shareit.gateway.item.HttpItemClient;
+import ru.practicum.shareit.gateway.item.ItemClient;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Один и тот же сценарий против двух процессов и против ShareItEmbedded: статусы, тела (без времени создания
+ * и отметок времени ошибок) и заголовки X-Next-Cursor и ETag должны совпасть. Сценарий задевает валидацию
+ * гейтвея, все исключения GlobalExceptionHandler сервера и постраничные списки.
+ */
+class ShareItEmbeddedTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final LocalDateTime START = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+    private static Deployment twoProcess;
+
+    private static Deployment embedded;
+
+    private static HttpClient client;
+
+    @BeforeAll
+    static void start() {
+        twoProcess = Deployment.twoProcess("two-process");
+        embedded = Deployment.embedded("embedded");
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stop() {
+        client.close();
+        embedded.close();
+        twoProcess.close();
+    }
+
+    @Test
+    void embedded_ShouldAnswerLikeTwoProcesses() {
+        List<Call> scenario = List.of(
+                new Call("POST", "/users", null, "{\"name\":\"Owner\",\"email\":\"owner@mail.ru\"}"),
+                new Call("POST", "/users", null, "{\"name\":\"Booker\",\"email\":\"booker@mail.ru\"}"),
+                new Call("POST", "/users", null, "{\"name\":\"Copy\",\"email\":\"owner@mail.ru\"}"),
+                new Call("POST", "/users", null, "{\"name\":\"Bad\",\"email\":\"not-an-email\"}"),
+                new Call("GET", "/users/999", null, null),
+                new Call("PATCH", "/users/2", null, "{\"name\":\"Booker 2\"}"),
+                new Call("POST", "/items", 1L, "{\"name\":\"Дрель\",\"description\":\"Простая дрель\",\"available\":true}"),
+                new Call("POST", "/items", 1L, "{\"name\":\"Дрель 2\",\"description\":\"Ударная дрель\",\"available\":true}"),
+                new Call("POST", "/items", 1L, "{\"description\":\"Без имени\",\"available\":true}"),
+                new Call("POST", "/items", 999L, "{\"name\":\"Пила\",\"description\":\"Пила\",\"available\":true}"),
+                new Call("GET", "/items/1", 1L, null),
+                new Call("GET", "/items", 1L, null),
+                new Call("GET", "/items/search?text=" + URLEncoder.encode("дрель", StandardCharsets.UTF_8) + "&size=1", 2L, null),
+                new Call("POST", "/bookings", 2L, booking(1, START, START.plusDays(1))),
+                new Call("POST", "/bookings", 1L, booking(1, START.plusDays(3), START.plusDays(4))),
+                new Call("POST", "/bookings", 2L, booking(1, START, START.plusDays(1))),
+                new Call("PATCH", "/bookings/1?approved=true", 2L, null),
+                new Call("PATCH", "/bookings/1?approved=true", 1L, null),
+                new Call("GET", "/bookings/1", 2L, null),
+                new Call("GET", "/bookings?state=ALL&size=1", 2L, null),
+                new Call("GET", "/bookings/owner?state=FUTURE", 1L, null),
+                new Call("GET", "/bookings?state=UNKNOWN", 2L, null),
+                new Call("POST", "/items/1/comment", 2L, "{\"text\":\"Отличная дрель\"}"),
+                new Call("POST", "/requests", 2L, "{\"description\":\"Нужна лестница\"}"),
+                new Call("GET", "/requests", 2L, null),
+                new Call("GET", "/requests/all?from=0&size=5", 1L, null),
+                new Call("GET", "/requests/1", 1L, null),
+                new Call("GET", "/requests/999", 1L, null));
+
+        List<Integer> statuses = new ArrayList<>();
+        for (Call call : scenario) {
+            HttpResponse<String> expected = send(twoProcess, call);
+            HttpResponse<String> actual = send(embedded, call);
+
+            assertEquals(expected.statusCode(), actual.statusCode(), call::toString);
+            assertEquals(normalize(expected.body()), normalize(actual.body()), call::toString);
+            assertEquals(expected.headers().firstValue("X-Next-Cursor"), actual.headers().firstValue("X-Next-Cursor"),
+                    call::toString);
+            assertEquals(expected.headers().firstValue("ETag").isPresent(),
+                    actual.headers().firstValue("ETag").isPresent(), call::toString);
+            statuses.add(actual.statusCode());
+        }
+
+        assertTrue(statuses.containsAll(List.of(200, 400, 404, 409, 500)), statuses::toString);
+    }
+
+    @Test
+    void embedded_ShouldCallServicesWithoutHttpClients() {
+        assertEquals(0, embedded.getServer().getBeanNamesForType(GatewayClientConfig.class).length);
+        assertEquals(0, embedded.getGateway().getBeanNamesForType(HttpItemClient.class).length);
+        assertInstanceOf(EmbeddedItemClient.class, embedded.getGateway().getBean(ItemClient.class));
+        assertSame(embedded.getServer().getBean(ItemService.class), embedded.getGateway().getBean(ItemService.class));
+    }
+
+    private static HttpResponse<String> send(Deployment deployment, Call call) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(deployment.uri(call.path()))
+                .header("Content-Type", "application/json")
+                .method(call.method(), call.body() == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(call.body()));
+        if (call.userId() != null) {
+            request.header("X-Sharer-User-Id", String.valueOf(call.userId()));
+        }
+        try {
+            return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JsonNode normalize(String body) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        try {
+            JsonNode json = MAPPER.readTree(body);
+            removeVolatileFields(json);
+            return json;
+        } catch (IOException e) {
+            throw new IllegalStateException(body, e);
+        }
+    }
+
+    private static void removeVolatileFields(JsonNode json) {
+        if (json instanceof ObjectNode object) {
+            object.remove(List.of("created", "timestamp"));
+        }
+        json.forEach(ShareItEmbeddedTest::removeVolatileFields);
+    }
+
+    private static String booking(long itemId, LocalDateTime start, LocalDateTime end) {
+        return "{\"itemId\":" + itemId + ",\"start\":\"" + start + "\",\"end\":\"" + end + "\"}";
+    }
+
+    private record Call(String method, String path, Long userId, String body) {
+    }
+}
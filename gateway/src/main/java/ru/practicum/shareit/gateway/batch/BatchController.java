@@ -0,0 +1,45 @@
+package ru.practicum.shareit.gateway.batch;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.gateway.batch.dto.BatchPartRequestDto;
+import ru.practicum.shareit.gateway.batch.dto.BatchPartResponseDto;
+
+import java.util.List;
+
+/**
+ * Несколько GET-запросов экрана одним обращением к гейтвею. Части выполняются параллельно
+ * от имени X-Sharer-User-Id пакета, ответ - статусы, заголовки и тела частей в порядке запроса.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/batch")
+@RequiredArgsConstructor
+@Validated
+public class BatchController {
+
+    static final int MAX_PARTS = 20;
+
+    private final BatchService batchService;
+
+    @PostMapping
+    public ResponseEntity<List<BatchPartResponseDto>> batch(
+            @RequestBody @NotEmpty(message = "Пакет не должен быть пустым")
+            @Size(max = MAX_PARTS, message = "В пакете не больше " + MAX_PARTS + " частей")
+            List<@Valid BatchPartRequestDto> parts,
+            HttpServletRequest request, HttpServletResponse response) {
+        log.info("Пакет из {} частей: {}", parts.size(), parts);
+        return ResponseEntity.ok(batchService.execute(request, response, parts));
+    }
+}
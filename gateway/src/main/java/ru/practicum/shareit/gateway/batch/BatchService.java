@@ -0,0 +1,168 @@
+package ru.practicum.shareit.gateway.batch;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.DispatcherServlet;
+import ru.practicum.shareit.gateway.batch.dto.BatchPartRequestDto;
+import ru.practicum.shareit.gateway.batch.dto.BatchPartResponseDto;
+import ru.practicum.shareit.gateway.limit.AdaptiveConcurrencyLimit;
+import ru.practicum.shareit.gateway.limit.RateLimiter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выполняет части пакета одновременно, каждую в своем виртуальном потоке. Часть проходит через
+ * DispatcherServlet гейтвея, то есть через те же контроллеры, валидацию и клиенты с общим пулом
+ * соединений, что и отдельный запрос. GatewayLimitFilter для частей не вызывается, поэтому часть сама
+ * расходует токены лимита своего маршрута и занимает место в общем пределе одновременных запросов:
+ * часть, которой места не хватило, получает 503, как отдельный запрос. Время ответа сервера
+ * каждой части учитывается пределом отдельно, через ConcurrencyLimitInterceptor.
+ * Порядок выполнения частей не определен, поэтому в пакете допускаются только GET-запросы.
+ */
+@Slf4j
+@Service
+public class BatchService {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final DispatcherServlet dispatcherServlet;
+
+    private final RateLimiter rateLimiter;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final ObjectMapper objectMapper;
+
+    private final Counter concurrencyRejected;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BatchService(DispatcherServlet dispatcherServlet, RateLimiter rateLimiter,
+                        AdaptiveConcurrencyLimit concurrencyLimit, ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+        this.objectMapper = objectMapper;
+        this.concurrencyRejected = Counter.builder("gateway.limit.rejected")
+                .description("Запросы, отклоненные гейтвеем без обращения к серверу")
+                .tag("reason", "concurrency")
+                .register(meterRegistry);
+    }
+
+    public List<BatchPartResponseDto> execute(HttpServletRequest batchRequest, HttpServletResponse batchResponse,
+                                              List<BatchPartRequestDto> parts) {
+        String userId = batchRequest.getHeader(USER_HEADER);
+        List<Future<BatchPartResponseDto>> calls = new ArrayList<>(parts.size());
+        for (BatchPartRequestDto part : parts) {
+            calls.add(executor.submit(() -> executePart(batchRequest, batchResponse, part.getPath(), userId)));
+        }
+        List<BatchPartResponseDto> result = new ArrayList<>(parts.size());
+        for (int i = 0; i < calls.size(); i++) {
+            result.add(await(calls.get(i), parts.get(i).getPath()));
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private BatchPartResponseDto executePart(HttpServletRequest batchRequest, HttpServletResponse batchResponse,
+                                             String path, String userId) {
+        BatchServletRequest request = new BatchServletRequest(batchRequest, path, userId);
+        long wait = rateLimiter.acquire(request);
+        if (wait > 0) {
+            return error(path, HttpStatus.TOO_MANY_REQUESTS, "Слишком много запросов, повторите позже",
+                    Map.of(HttpHeaders.RETRY_AFTER, List.of(String.valueOf(TimeUnit.NANOSECONDS.toSeconds(wait - 1) + 1))));
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            concurrencyRejected.increment();
+            return error(path, HttpStatus.SERVICE_UNAVAILABLE, "Сервер перегружен, повторите позже",
+                    Map.of(HttpHeaders.RETRY_AFTER, List.of("1")));
+        }
+        BatchServletResponse response = new BatchServletResponse(batchResponse);
+        try {
+            dispatcherServlet.service(request, response);
+        } catch (ServletException | IOException | RuntimeException e) {
+            Throwable cause = e instanceof ServletException && e.getCause() != null ? e.getCause() : e;
+            if (cause instanceof ConstraintViolationException) {
+                return error(path, HttpStatus.BAD_REQUEST, cause.getMessage(), Map.of());
+            }
+            log.error("Часть пакета {} завершилась ошибкой", path, cause);
+            return error(path, HttpStatus.INTERNAL_SERVER_ERROR, cause.getMessage(), Map.of());
+        } finally {
+            concurrencyLimit.release();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.headers());
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        return new BatchPartResponseDto(path, response.getStatus(), headers, rawBody(headers, response.body()));
+    }
+
+    /**
+     * JSON вставляется в общий ответ как есть, остальное - JSON-строкой.
+     */
+    private String rawBody(HttpHeaders headers, byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        String text = new String(body, StandardCharsets.UTF_8);
+        MediaType contentType = headers.getContentType();
+        if (contentType != null && (contentType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                || contentType.getSubtype().endsWith("+json"))) {
+            return text;
+        }
+        return toJson(text);
+    }
+
+    private BatchPartResponseDto error(String path, HttpStatus status, String message,
+                                       Map<String, List<String>> headers) {
+        return new BatchPartResponseDto(path, status.value(), headers,
+                toJson(Map.of("message", String.valueOf(message))));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private BatchPartResponseDto await(Future<BatchPartResponseDto> call, String path) {
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            call.cancel(true);
+            return error(path, HttpStatus.SERVICE_UNAVAILABLE, "Пакет прерван", Map.of());
+        } catch (ExecutionException e) {
+            log.error("Часть пакета {} завершилась ошибкой", path, e.getCause());
+            return error(path, HttpStatus.INTERNAL_SERVER_ERROR, e.getCause().getMessage(), Map.of());
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.gateway.batch.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Часть пакетного запроса - GET на путь гейтвея вместе с параметрами, например /bookings/owner?state=ALL.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPartRequestDto {
+
+    @NotBlank(message = "Путь части запроса не должен быть пустым")
+    @Pattern(regexp = "^/(?!batch).*", message = "Путь части запроса должен начинаться с / и не вести на /batch")
+    private String path;
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.gateway.batch.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ответ на часть пакетного запроса: статус, заголовки и тело так, как их вернул бы отдельный запрос.
+ * Тело - JSON без повторной сериализации.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchPartResponseDto {
+
+    private String path;
+
+    private int status;
+
+    private Map<String, List<String>> headers;
+
+    @JsonRawValue
+    private String body;
+}
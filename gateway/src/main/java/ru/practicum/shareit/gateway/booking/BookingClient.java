@@ -0,0 +1,21 @@
+package ru.practicum.shareit.gateway.booking;
+
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.gateway.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.gateway.booking.dto.BookingState;
+
+/**
+ * Обращения гейтвея к бронированиям на сервере. Ответ передается клиенту как есть: статус, заголовки и тело сервера.
+ */
+public interface BookingClient {
+
+    ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size, String cursor);
+
+    ResponseEntity<Object> approveBooking(long userId, long bookingId, boolean approved);
+
+    ResponseEntity<Object> getBookingsForOwner(long userId, BookingState state, Integer from, Integer size, String cursor);
+
+    ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto);
+
+    ResponseEntity<Object> getBooking(long userId, Long bookingId);
+}
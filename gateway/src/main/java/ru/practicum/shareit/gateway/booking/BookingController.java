@@ -1,4 +1,4 @@
-package ru.practicum.shareit.booking;
+package ru.practicum.shareit.gateway.booking;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
@@ -9,8 +9,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.booking.dto.BookItemRequestDto;
-import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.gateway.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.gateway.booking.dto.BookingState;
 
 
 @Controller
@@ -25,7 +25,8 @@ public class BookingController {
     public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state;
         try {
             state = BookingState.valueOf(stateParam.toUpperCase());
@@ -33,14 +34,15 @@ public class BookingController {
             throw new IllegalArgumentException("Unknown state: " + stateParam);
         }
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<Object> getBookingsForOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                                       @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                       @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                      @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                      @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                      @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state;
         try {
             state = BookingState.valueOf(stateParam.toUpperCase());
@@ -48,7 +50,7 @@ public class BookingController {
             throw new IllegalArgumentException("Unknown state: " + stateParam);
         }
         log.info("Get booking for owner with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookingsForOwner(userId, state, from, size);
+        return bookingClient.getBookingsForOwner(userId, state, from, size, cursor);
     }
 
     @PostMapping
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.gateway.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.gateway.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.gateway.booking.dto.BookingState;
+import ru.practicum.shareit.gateway.client.BaseClient;
+import ru.practicum.shareit.gateway.client.GatewayClientConfig;
+import ru.practicum.shareit.gateway.client.ServerEndpoint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@ConditionalOnExpression(GatewayClientConfig.HTTP_CLIENT_MODE)
+public class HttpBookingClient extends BaseClient implements BookingClient {
+    private static final String API_PREFIX = "/bookings";
+
+    @Autowired
+    public HttpBookingClient(ServerEndpoint server, RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory, @Value("${shareit-server.passthrough:true}") boolean passthrough) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(server.getBaseUrl() + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                passthrough
+        );
+    }
+
+    @Override
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return getPage("", userId, state, from, size, cursor);
+    }
+
+
+    @Override
+    public ResponseEntity<Object> approveBooking(long userId, long bookingId, boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "approved", approved
+        );
+        return patch("/" + bookingId + "?approved=" + approved, userId);
+    }
+
+    @Override
+    public ResponseEntity<Object> getBookingsForOwner(long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return getPage("/owner", userId, state, from, size, cursor);
+    }
+
+    @Override
+    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+        return post("", userId, requestDto);
+    }
+
+    @Override
+    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+        return get("/" + bookingId, userId);
+    }
+
+    private ResponseEntity<Object> getPage(String path, long userId, BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get(path + "?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
+    }
+}
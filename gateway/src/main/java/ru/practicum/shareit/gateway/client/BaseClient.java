@@ -1,4 +1,4 @@
-package ru.practicum.shareit.client;
+package ru.practicum.shareit.gateway.client;
 
 import org.springframework.http.*;
 import org.springframework.lang.Nullable;
@@ -7,12 +7,34 @@ import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 public class BaseClient {
+
+    /**
+     * Заголовки одного соединения и длина тела: их выставляет сам гейтвей при отправке ответа клиенту.
+     */
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of(
+            HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.TRANSFER_ENCODING, HttpHeaders.TE,
+            HttpHeaders.TRAILER, HttpHeaders.UPGRADE, HttpHeaders.PROXY_AUTHENTICATE,
+            HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.CONTENT_LENGTH);
+
     protected final RestTemplate rest;
 
+    private final Class<Object> responseType;
+
     public BaseClient(RestTemplate rest) {
+        this(rest, false);
+    }
+
+    /**
+     * @param passthrough true - тело ответа сервера передается клиенту как есть, байтами, вместе с его
+     *                    Content-Type; false - тело разбирается в Object и заново сериализуется Jackson
+     */
+    @SuppressWarnings("unchecked")
+    public BaseClient(RestTemplate rest, boolean passthrough) {
         this.rest = rest;
+        this.responseType = (Class<Object>) (passthrough ? byte[].class : Object.class);
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -81,12 +103,14 @@ public class BaseClient {
         ResponseEntity<Object> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, responseType);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(endToEndHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
@@ -102,11 +126,8 @@ public class BaseClient {
     }
 
     private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(endToEndHeaders(response.getHeaders()));
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -114,4 +135,16 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    private static HttpHeaders endToEndHeaders(@Nullable HttpHeaders headers) {
+        HttpHeaders result = new HttpHeaders();
+        if (headers != null) {
+            headers.forEach((name, values) -> {
+                if (HOP_BY_HOP_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                    result.addAll(name, values);
+                }
+            });
+        }
+        return result;
+    }
 }
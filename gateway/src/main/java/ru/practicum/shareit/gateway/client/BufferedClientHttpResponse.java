@@ -0,0 +1,51 @@
+package ru.practicum.shareit.gateway.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Ответ сервера, прочитанный в память целиком. Каждый вызов copy() отдает независимый поток тела,
+ * поэтому один ответ можно вернуть нескольким вызывающим.
+ */
+record BufferedClientHttpResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+
+    static BufferedClientHttpResponse read(ClientHttpResponse response) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        return new BufferedClientHttpResponse(response.getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers),
+                response.getBody().readAllBytes());
+    }
+
+    ClientHttpResponse copy() {
+        return new ClientHttpResponse() {
+            @Override
+            public HttpStatusCode getStatusCode() {
+                return status;
+            }
+
+            @Override
+            public String getStatusText() {
+                return "";
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
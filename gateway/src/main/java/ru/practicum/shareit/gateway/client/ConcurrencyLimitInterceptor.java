@@ -0,0 +1,53 @@
+package ru.practicum.shareit.gateway.client;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import ru.practicum.shareit.gateway.limit.AdaptiveConcurrencyLimit;
+
+import java.io.IOException;
+
+/**
+ * Передает адаптивному пределу одновременных запросов время каждого обращения к серверу, в том числе
+ * завершившегося ошибкой соединения или таймаутом. Маршрут для базовой задержки - имя из
+ * shareit-server.resilience.routes, пути вне этих шаблонов считаются одним маршрутом other.
+ */
+public class ConcurrencyLimitInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String OTHER_ROUTE = "other";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final ResilienceProperties properties;
+
+    public ConcurrencyLimitInterceptor(AdaptiveConcurrencyLimit concurrencyLimit, ResilienceProperties properties) {
+        this.concurrencyLimit = concurrencyLimit;
+        this.properties = properties;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        long started = System.nanoTime();
+        try {
+            return execution.execute(request, body);
+        } finally {
+            concurrencyLimit.onResponse(findRoute(request), System.nanoTime() - started);
+        }
+    }
+
+    private String findRoute(HttpRequest request) {
+        String path = request.getURI().getPath();
+        for (ResilienceProperties.Route route : properties.getRoutes()) {
+            if (pathMatcher.match(route.getPattern(), path)) {
+                return route.getName();
+            }
+        }
+        return OTHER_ROUTE;
+    }
+}
@@ -0,0 +1,114 @@
+package ru.practicum.shareit.gateway.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.io.IOException;
+
+/**
+ * Кэш GET-ответов сервера с ETag. Если для запроса есть сохраненный ответ, на сервер уходит
+ * If-None-Match, и при 304 клиент получает копию сохраненного ответа, а тело по сети не передается.
+ * Ответ без ETag, с ошибкой клиента или слишком большой из кэша удаляется. Ошибка сервера или отказ
+ * предохранителя (5xx) запись не трогает: она остается верной и пригодится, когда сервер оживет.
+ * Кэш ограничен общим размером тел и ключей (max-size), вытесняются редко запрашиваемые записи.
+ * Метрики: gateway.response.cache.requests с тегом result=revalidated|modified|miss.
+ */
+public class EtagCacheInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final ResponseCacheProperties properties;
+
+    private final Cache<String, BufferedClientHttpResponse> entries;
+
+    private final Counter revalidated;
+
+    private final Counter modified;
+
+    private final Counter miss;
+
+    public EtagCacheInterceptor(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .<String, BufferedClientHttpResponse>weigher((key, response) -> key.length() + response.body().length)
+                .build();
+        this.revalidated = counter(meterRegistry, "revalidated");
+        this.modified = counter(meterRegistry, "modified");
+        this.miss = counter(meterRegistry, "miss");
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        if (!cacheable(request)) {
+            return execution.execute(request, body);
+        }
+        String key = request.getURI() + "#" + request.getHeaders().getFirst(USER_HEADER);
+        BufferedClientHttpResponse cached = entries.getIfPresent(key);
+        if (cached != null) {
+            request.getHeaders().setIfNoneMatch(cached.headers().getETag());
+        }
+        try (ClientHttpResponse response = execution.execute(request, body)) {
+            if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                revalidated.increment();
+                return cached.copy();
+            }
+            (cached != null ? modified : miss).increment();
+            BufferedClientHttpResponse buffered = BufferedClientHttpResponse.read(response);
+            if (storable(buffered)) {
+                entries.put(key, buffered);
+            } else if (cached != null && !buffered.status().is5xxServerError()) {
+                entries.invalidate(key);
+            }
+            return buffered.copy();
+        }
+    }
+
+    long weightedSize() {
+        entries.cleanUp();
+        return entries.policy().eviction().orElseThrow().weightedSize().orElseThrow();
+    }
+
+    long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+
+    private boolean cacheable(HttpRequest request) {
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET) {
+            return false;
+        }
+        String path = request.getURI().getPath();
+        return properties.getRoutes().stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+    }
+
+    private boolean storable(BufferedClientHttpResponse response) {
+        HttpHeaders headers = response.headers();
+        String cacheControl = headers.getCacheControl();
+        return response.status().isSameCodeAs(HttpStatus.OK)
+                && headers.getETag() != null
+                && (cacheControl == null || !cacheControl.contains("no-store"))
+                && response.body().length <= properties.getMaxEntrySize().toBytes();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.response.cache.requests")
+                .description("GET-запросы к серверу по кэшируемым маршрутам")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
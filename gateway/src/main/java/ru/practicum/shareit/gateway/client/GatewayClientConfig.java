@@ -0,0 +1,188 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.apache.tomcat.util.threads.VirtualThreadExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import ru.practicum.shareit.gateway.limit.AdaptiveConcurrencyLimit;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.Executors;
+
+/**
+ * Способ, которым гейтвей проксирует запросы на сервер, задается свойством shareit-server.client-mode.
+ * pooled - запрос обслуживает поток Tomcat, к серверу ходит Apache HttpClient, и поток занят все время,
+ * пока сервер отвечает. virtual - каждый запрос обслуживается виртуальным потоком, к серверу ходит
+ * java.net.http.HttpClient, и ожидание ответа сервера не занимает платформенный поток; асинхронные
+ * обработчики Spring MVC и @Async тоже выполняются виртуальными потоками.
+ * Адрес сервера задается shareit-server.url, unix-сокет (unix:/path) поддерживается только в режиме pooled.
+ * embedded - гейтвей и сервер работают в одной JVM (модуль embedded), и вместо Http*Client клиентами гейтвея
+ * служат его реализации, вызывающие сервисы сервера напрямую; пул соединений и фабрика запросов тогда не создаются.
+ */
+@Configuration
+@EnableConfigurationProperties({ServerPoolProperties.class, SingleFlightProperties.class,
+        ResponseCacheProperties.class, ResilienceProperties.class})
+public class GatewayClientConfig {
+
+    /**
+     * Условие для HTTP-клиентов гейтвея: они нужны во всех режимах, кроме embedded.
+     */
+    public static final String HTTP_CLIENT_MODE = "'${shareit-server.client-mode:pooled}' != 'embedded'";
+
+    @Bean
+    public ServerEndpoint serverEndpoint(@Value("${shareit-server.url}") String url) {
+        return new ServerEndpoint(url);
+    }
+
+    /**
+     * Один пул на все клиенты гейтвея, его размеры и таймауты задаются shareit-server.pool.*.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "pooled", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager serverConnectionManager(ServerPoolProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                        .setTimeToLive(TimeValue.of(properties.getTimeToLive()))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "pooled", matchIfMissing = true)
+    public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                ServerPoolProperties properties, ServerEndpoint serverEndpoint) {
+        return HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getAcquireTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getResponseTimeout()))
+                        .setUnixDomainSocket(serverEndpoint.getUnixSocket())
+                        .build())
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE)
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "pooled", matchIfMissing = true)
+    public ClientHttpRequestFactory pooledRequestFactory(CloseableHttpClient serverHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(serverHttpClient);
+    }
+
+    /**
+     * Метрики httpcomponents.httpclient.pool.* с тегом httpclient=shareit-server: занятые, свободные
+     * и ожидающие соединения, доступны в /actuator/metrics.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "pooled", matchIfMissing = true)
+    public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(serverConnectionManager, "shareit-server");
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "virtual")
+    public ClientHttpRequestFactory virtualRequestFactory(ServerPoolProperties properties, ServerEndpoint serverEndpoint) {
+        if (serverEndpoint.isUnixSocket()) {
+            throw new IllegalStateException("java.net.http.HttpClient не поддерживает unix-сокеты, "
+                    + "для shareit-server.url=unix:... нужен shareit-server.client-mode=pooled");
+        }
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(properties.getConnectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.getResponseTimeout());
+        return requestFactory;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(new VirtualThreadExecutor("gateway-handler-"));
+    }
+
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    @ConditionalOnProperty(name = "shareit-server.client-mode", havingValue = "virtual")
+    public SimpleAsyncTaskExecutor virtualTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("gateway-async-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    @Bean
+    public SingleFlightInterceptor singleFlightInterceptor(SingleFlightProperties properties,
+                                                           MeterRegistry meterRegistry) {
+        return new SingleFlightInterceptor(properties, meterRegistry);
+    }
+
+    @Bean
+    public EtagCacheInterceptor etagCacheInterceptor(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        return new EtagCacheInterceptor(properties, meterRegistry);
+    }
+
+    @Bean
+    public ResilienceInterceptor resilienceInterceptor(ResilienceProperties properties,
+                                                       CircuitBreakerRegistry circuitBreakerRegistry,
+                                                       BulkheadRegistry bulkheadRegistry,
+                                                       MeterRegistry meterRegistry) {
+        return new ResilienceInterceptor(properties, circuitBreakerRegistry, bulkheadRegistry, meterRegistry);
+    }
+
+    @Bean
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor(AdaptiveConcurrencyLimit concurrencyLimit,
+                                                                   ResilienceProperties properties) {
+        return new ConcurrencyLimitInterceptor(concurrencyLimit, properties);
+    }
+
+    /**
+     * Применяется к RestTemplateBuilder, из которого собраны все клиенты гейтвея. Single-flight стоит
+     * снаружи кэша, поэтому одновременные одинаковые запросы перепроверяют запись на сервере один раз.
+     * Предохранитель стоит ближе к серверу, чем кэш: места в ограничителе занимают только настоящие запросы.
+     * Последним время ответа сервера измеряет ConcurrencyLimitInterceptor, поэтому ответы кэша и отказы
+     * предохранителя в адаптивный предел не попадают.
+     */
+    @Bean
+    public RestTemplateCustomizer serverInterceptorsRestTemplateCustomizer(
+            SingleFlightInterceptor singleFlightInterceptor,
+            EtagCacheInterceptor etagCacheInterceptor,
+            ResilienceInterceptor resilienceInterceptor,
+            ConcurrencyLimitInterceptor concurrencyLimitInterceptor) {
+        return restTemplate -> {
+            restTemplate.getInterceptors().add(singleFlightInterceptor);
+            restTemplate.getInterceptors().add(etagCacheInterceptor);
+            restTemplate.getInterceptors().add(resilienceInterceptor);
+            restTemplate.getInterceptors().add(concurrencyLimitInterceptor);
+        };
+    }
+}
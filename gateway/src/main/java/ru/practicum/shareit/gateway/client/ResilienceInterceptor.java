@@ -0,0 +1,121 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Предохранитель и ограничитель параллелизма на каждый маршрут сервера. Пока предохранитель маршрута
+ * разомкнут или все места в его ограничителе заняты, запрос не уходит на сервер, и клиент сразу получает
+ * 503 с Retry-After. Так медленный поиск не занимает потоки и соединения, нужные бронированиям и пользователям.
+ * Ошибкой для предохранителя считаются ответы 5xx и сбои соединения, медленным - ответ дольше
+ * slow-call-duration-threshold. Состояние доступно в /actuator/circuitbreakers и /actuator/bulkheads,
+ * отказы - в метрике gateway.resilience.rejected с тегами route и reason=circuit-open|bulkhead-full.
+ */
+@Slf4j
+public class ResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final ResilienceProperties properties;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public ResilienceInterceptor(ResilienceProperties properties, CircuitBreakerRegistry circuitBreakerRegistry,
+                                 BulkheadRegistry bulkheadRegistry, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+        properties.getRoutes().forEach(route -> {
+            circuitBreakerRegistry.circuitBreaker(route.getName());
+            bulkheadRegistry.bulkhead(route.getName());
+        });
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String route = properties.isEnabled() ? findRoute(request) : null;
+        if (route == null) {
+            return execution.execute(request, body);
+        }
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(route);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(route);
+        if (!circuitBreaker.tryAcquirePermission()) {
+            long retryAfter = circuitBreaker.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1);
+            return reject(route, "circuit-open", TimeUnit.MILLISECONDS.toSeconds(retryAfter - 1) + 1);
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            return reject(route, "bulkhead-full", 1);
+        }
+        long started = circuitBreaker.getCurrentTimestamp();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            long duration = circuitBreaker.getCurrentTimestamp() - started;
+            if (response.getStatusCode().is5xxServerError()) {
+                circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                        new IOException("Сервер ответил " + response.getStatusCode()));
+            } else {
+                circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - started, circuitBreaker.getTimestampUnit(), e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private String findRoute(HttpRequest request) {
+        String path = request.getURI().getPath();
+        for (ResilienceProperties.Route route : properties.getRoutes()) {
+            if (pathMatcher.match(route.getPattern(), path)) {
+                return route.getName();
+            }
+        }
+        return null;
+    }
+
+    private ClientHttpResponse reject(String route, String reason, long retryAfterSeconds) {
+        log.debug("Запрос к маршруту {} отклонен без обращения к серверу: {}", route, reason);
+        counters.computeIfAbsent(route + " " + reason, name -> Counter.builder("gateway.resilience.rejected")
+                        .description("Запросы, отклоненные предохранителем или ограничителем параллелизма маршрута")
+                        .tag("route", route)
+                        .tag("reason", reason)
+                        .register(meterRegistry))
+                .increment();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        byte[] body = "{\"message\":\"Сервис временно недоступен, повторите позже\"}".getBytes(StandardCharsets.UTF_8);
+        return new BufferedClientHttpResponse(HttpStatus.SERVICE_UNAVAILABLE, headers, body).copy();
+    }
+}
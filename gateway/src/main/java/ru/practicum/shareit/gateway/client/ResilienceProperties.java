@@ -0,0 +1,35 @@
+package ru.practicum.shareit.gateway.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Соответствие путей на сервере именам предохранителей и ограничителей параллелизма. Их параметры
+ * задаются стандартными свойствами resilience4j.circuitbreaker.* и resilience4j.bulkhead.* по имени маршрута.
+ * Маршрут выбирается по первому подходящему шаблону пути, поэтому более частные шаблоны идут раньше.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.resilience")
+public class ResilienceProperties {
+
+    private boolean enabled = true;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        /**
+         * Шаблон пути на сервере в синтаксисе AntPathMatcher, например /items/search.
+         */
+        private String pattern;
+
+        /**
+         * Имя экземпляра в resilience4j.circuitbreaker.instances и resilience4j.bulkhead.instances.
+         */
+        private String name;
+    }
+}
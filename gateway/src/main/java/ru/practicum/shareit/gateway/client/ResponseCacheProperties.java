@@ -0,0 +1,34 @@
+package ru.practicum.shareit.gateway.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Кэш ответов сервера в памяти гейтвея. Записи ключуются URI вместе с параметрами и X-Sharer-User-Id
+ * и перед выдачей всегда перепроверяются на сервере по ETag.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.response-cache")
+public class ResponseCacheProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Общий размер сохраненных тел и ключей, сверх которого вытесняются редко запрашиваемые записи.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Ответы с телом больше этого размера не кэшируются.
+     */
+    private DataSize maxEntrySize = DataSize.ofKilobytes(64);
+
+    /**
+     * Шаблоны путей на сервере в синтаксисе AntPathMatcher, GET-ответы которых кэшируются.
+     */
+    private List<String> routes = new ArrayList<>();
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.gateway.client;
+
+import lombok.Getter;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+/**
+ * Адрес сервера из shareit-server.url. http://host:port - соединение по TCP, unix:/path/server.sock -
+ * unix-сокет сервера на том же хосте; запросы тогда адресуются http://localhost, а соединение
+ * открывается с файлом сокета.
+ */
+@Getter
+public class ServerEndpoint {
+
+    private static final String UNIX_SCHEME = "unix";
+
+    private final String baseUrl;
+
+    private final Path unixSocket;
+
+    public ServerEndpoint(String url) {
+        URI uri = URI.create(url);
+        if (UNIX_SCHEME.equalsIgnoreCase(uri.getScheme())) {
+            if (uri.getPath() == null || uri.getPath().isEmpty()) {
+                throw new IllegalArgumentException("Не указан путь к unix-сокету сервера: " + url);
+            }
+            this.baseUrl = "http://localhost";
+            this.unixSocket = Path.of(uri.getPath());
+        } else {
+            this.baseUrl = url;
+            this.unixSocket = null;
+        }
+    }
+
+    public boolean isUnixSocket() {
+        return unixSocket != null;
+    }
+}
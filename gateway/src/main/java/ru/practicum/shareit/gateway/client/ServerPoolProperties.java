@@ -0,0 +1,55 @@
+package ru.practicum.shareit.gateway.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Общий пул соединений гейтвея с сервером. Таймауты соединения и ответа действуют в обоих режимах
+ * shareit-server.client-mode, остальные настройки - только в режиме pooled.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.pool")
+public class ServerPoolProperties {
+
+    /**
+     * Максимум открытых соединений со всеми адресами.
+     */
+    private int maxTotal = 200;
+
+    /**
+     * Максимум открытых соединений с одним адресом сервера.
+     */
+    private int maxPerRoute = 200;
+
+    /**
+     * Время на установку TCP-соединения.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Время ожидания ответа сервера.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Время ожидания свободного соединения из пула, после которого запрос завершается ошибкой.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Соединение, простоявшее дольше, проверяется перед повторным использованием.
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Максимальное время жизни соединения, после которого оно закрывается.
+     */
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    /**
+     * Простаивающие дольше соединения закрываются фоновым потоком.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight для GET-запросов гейтвея к серверу: пока запрос с тем же URI (и тем же
+ * X-Sharer-User-Id для пользовательских маршрутов) ждет ответа, повторные не уходят на сервер,
+ * а получают копию того же ответа. Ответ не кэшируется: ключ освобождается сразу после его получения.
+ * Метрики: gateway.coalescing.requests с тегами route и result=leader|coalesced
+ * и gateway.coalescing.ratio - доля объединенных запросов.
+ */
+public class SingleFlightInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final SingleFlightProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, CompletableFuture<BufferedClientHttpResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public SingleFlightInterceptor(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.coalescing.ratio", this, SingleFlightInterceptor::coalescedRatio)
+                .description("Доля GET-запросов, получивших ответ чужого запроса к серверу")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        SingleFlightProperties.Route route = request.getMethod() == HttpMethod.GET ? findRoute(request) : null;
+        if (route == null) {
+            return execution.execute(request, body);
+        }
+        String key = route.isPerUser()
+                ? request.getURI() + "#" + request.getHeaders().getFirst(USER_HEADER)
+                : request.getURI().toString();
+
+        CompletableFuture<BufferedClientHttpResponse> call = new CompletableFuture<>();
+        CompletableFuture<BufferedClientHttpResponse> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            counter(route, "coalesced").increment();
+            return await(existing).copy();
+        }
+        counter(route, "leader").increment();
+        try (ClientHttpResponse response = execution.execute(request, body)) {
+            BufferedClientHttpResponse buffered = BufferedClientHttpResponse.read(response);
+            call.complete(buffered);
+            return buffered.copy();
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private SingleFlightProperties.Route findRoute(HttpRequest request) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        String path = request.getURI().getPath();
+        for (SingleFlightProperties.Route route : properties.getRoutes()) {
+            if (pathMatcher.match(route.getPattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private Counter counter(SingleFlightProperties.Route route, String result) {
+        return counters.computeIfAbsent(route.getPattern() + " " + result, name -> Counter
+                .builder("gateway.coalescing.requests")
+                .tag("route", route.getPattern())
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+
+    private double coalescedRatio() {
+        Map<String, Double> totals = new HashMap<>();
+        counters.forEach((name, counter) -> totals.merge(counter.getId().getTag("result"), counter.count(), Double::sum));
+        double coalesced = totals.getOrDefault("coalesced", 0.0);
+        double total = coalesced + totals.getOrDefault("leader", 0.0);
+        return total == 0 ? 0 : coalesced / total;
+    }
+
+    private static BufferedClientHttpResponse await(CompletableFuture<BufferedClientHttpResponse> call) throws IOException {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.gateway.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршруты, на которых одинаковые одновременные GET-запросы к серверу объединяются в один.
+ * Маршрут выбирается по первому подходящему шаблону пути, поэтому более частные шаблоны идут раньше.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.single-flight")
+public class SingleFlightProperties {
+
+    private boolean enabled = true;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        /**
+         * Шаблон пути на сервере в синтаксисе AntPathMatcher, например /items/*.
+         */
+        private String pattern;
+
+        /**
+         * true - ответ зависит от X-Sharer-User-Id, и объединяются только запросы одного пользователя.
+         */
+        private boolean perUser = true;
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.gateway.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.gateway.client.BaseClient;
+import ru.practicum.shareit.gateway.client.GatewayClientConfig;
+import ru.practicum.shareit.gateway.client.ServerEndpoint;
+import ru.practicum.shareit.gateway.item.dto.CreateCommentDto;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@ConditionalOnExpression(GatewayClientConfig.HTTP_CLIENT_MODE)
+public class HttpItemClient extends BaseClient implements ItemClient {
+
+    private static final String API_PREFIX = "/items";
+
+    @Autowired
+    public HttpItemClient(ServerEndpoint server, RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory, @Value("${shareit-server.passthrough:true}") boolean passthrough) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(server.getBaseUrl() + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                passthrough
+        );
+    }
+
+    @Override
+    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
+        return post("", userId, itemDto);
+    }
+
+    @Override
+    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
+        return patch("/" + itemId, userId, itemDto);
+    }
+
+    @Override
+    public ResponseEntity<Object> getItem(long userId, long itemId) {
+        return get("/" + itemId, userId);
+    }
+
+    @Override
+    public ResponseEntity<Object> getItemUser(long userId) {
+        return get("", userId);
+    }
+
+    @Override
+    public ResponseEntity<Object> searchItem(long userId, String text, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/search?text={text}&from={from}&size={size}&cursor={cursor}", userId, parameters);
+    }
+
+    @Override
+    public ResponseEntity<Object> addComment(long userId, CreateCommentDto createCommentDto, long itemId) {
+        return post("/" + itemId + "/comment", userId, createCommentDto);
+    }
+}
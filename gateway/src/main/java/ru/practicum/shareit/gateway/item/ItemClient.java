@@ -0,0 +1,23 @@
+package ru.practicum.shareit.gateway.item;
+
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.gateway.item.dto.CreateCommentDto;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+
+/**
+ * Обращения гейтвея к вещам на сервере. Ответ передается клиенту как есть: статус, заголовки и тело сервера.
+ */
+public interface ItemClient {
+
+    ResponseEntity<Object> createItem(long userId, ItemDto itemDto);
+
+    ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto);
+
+    ResponseEntity<Object> getItem(long userId, long itemId);
+
+    ResponseEntity<Object> getItemUser(long userId);
+
+    ResponseEntity<Object> searchItem(long userId, String text, Integer from, Integer size, String cursor);
+
+    ResponseEntity<Object> addComment(long userId, CreateCommentDto createCommentDto, long itemId);
+}
@@ -1,14 +1,17 @@
-package ru.practicum.shareit.item;
+package ru.practicum.shareit.gateway.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.item.dto.CreateCommentDto;
-import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.gateway.item.dto.CreateCommentDto;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
 
 @Slf4j
 @RestController
@@ -19,6 +22,8 @@ public class ItemController {
 
     private static final String HEADER_REQUEST_ID = "X-Sharer-User-Id";
 
+    private static final int MAX_SEARCH_SIZE = 100;
+
     private final ItemClient itemClient;
 
     @PostMapping
@@ -47,8 +52,11 @@ public class ItemController {
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItem(@RequestHeader(HEADER_REQUEST_ID) Long userId,
-                                                    @RequestParam String text) {
-        return itemClient.searchItem(userId, text);
+                                                    @RequestParam String text,
+                                                    @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                    @Positive @Max(MAX_SEARCH_SIZE) @RequestParam(defaultValue = "10") Integer size,
+                                                    @RequestParam(required = false) String cursor) {
+        return itemClient.searchItem(userId, text, from, size, cursor);
     }
 
     @PostMapping("/{itemId}/comment")
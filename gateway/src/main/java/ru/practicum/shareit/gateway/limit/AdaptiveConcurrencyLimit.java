@@ -0,0 +1,110 @@
+package ru.practicum.shareit.gateway.limit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Предел одновременных запросов по схеме AIMD. Запрос занимает место в пределе на все время обработки
+ * в гейтвее (tryAcquire/release), а время ответа учитывается только для настоящих обращений к серверу
+ * (onResponse), поэтому ответы гейтвея без сервера - 400 валидации, 304 из кэша, 503 предохранителя -
+ * базовую задержку не занижают. Базовая задержка своя у каждого маршрута: экспоненциальное скользящее
+ * среднее времени ответа за примерно window последних ответов. Если ответ пришел медленнее базовой задержки
+ * больше чем в latencyTolerance раз, предел умножается на backoffRatio, но не чаще одного раза за время
+ * ответа. Иначе, если предел использован хотя бы наполовину, он растет на единицу. Запросы сверх предела
+ * отклоняются сразу. Состояние хранится в атомарных переменных, блокировок нет.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final ConcurrencyLimitProperties properties;
+
+    private final double smoothing;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger limit;
+
+    private final AtomicLong lastDecrease;
+
+    private final Map<String, AtomicLong> baselines = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimit(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        this.smoothing = 2.0 / (Math.max(1, properties.getWindow()) + 1);
+        this.limit = new AtomicInteger(properties.getInitialLimit());
+        this.lastDecrease = new AtomicLong(System.nanoTime());
+    }
+
+    public boolean tryAcquire() {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+        if (inFlight.incrementAndGet() > limit.get()) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Вызывается после ответа на запрос, пропущенный tryAcquire.
+     */
+    public void release() {
+        if (properties.isEnabled()) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Время ответа сервера на запрос к маршруту route.
+     */
+    public void onResponse(String route, long rttNanos) {
+        if (properties.isEnabled()) {
+            update(route, rttNanos, inFlight.get(), System.nanoTime());
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    void update(String route, long rttNanos, int used, long now) {
+        if (isSlow(baselines.computeIfAbsent(route, name -> new AtomicLong()), rttNanos)) {
+            long last = lastDecrease.get();
+            if (now - last >= rttNanos && lastDecrease.compareAndSet(last, now)) {
+                limit.updateAndGet(current -> Math.max(properties.getMinLimit(),
+                        (int) (current * properties.getBackoffRatio())));
+            }
+        } else if (used * 2 >= limit.get()) {
+            limit.updateAndGet(current -> Math.min(properties.getMaxLimit(), current + 1));
+        }
+    }
+
+    /**
+     * Сдвигает базовую задержку маршрута к rttNanos. Медленный ответ учитывается не больше чем
+     * baseline * latencyTolerance: при перегрузке базовая задержка растет медленно, а после устойчивого
+     * изменения маршрута все же догоняет новое время ответа.
+     */
+    private boolean isSlow(AtomicLong baseline, long rttNanos) {
+        while (true) {
+            long current = baseline.get();
+            if (current == 0) {
+                if (baseline.compareAndSet(0, Math.max(1, rttNanos))) {
+                    return false;
+                }
+                continue;
+            }
+            double threshold = current * properties.getLatencyTolerance();
+            double sample = Math.min(rttNanos, threshold);
+            long next = Math.max(1, Math.round(current + (sample - current) * smoothing));
+            if (baseline.compareAndSet(current, next)) {
+                return rttNanos > threshold;
+            }
+        }
+    }
+}
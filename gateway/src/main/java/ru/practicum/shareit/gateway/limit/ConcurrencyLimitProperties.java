@@ -0,0 +1,36 @@
+package ru.practicum.shareit.gateway.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Общий для всех пользователей предел одновременно обрабатываемых запросов, который подстраивается
+ * под время ответа сервера.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-gateway.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 100;
+
+    private int minLimit = 10;
+
+    private int maxLimit = 400;
+
+    /**
+     * Во сколько раз время ответа может превысить базовую задержку маршрута, прежде чем предел уменьшится.
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Множитель, на который уменьшается предел, не чаще одного раза за время ответа.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Примерное число последних ответов маршрута, по которым сглаживается его базовая задержка.
+     */
+    private int window = 100;
+}
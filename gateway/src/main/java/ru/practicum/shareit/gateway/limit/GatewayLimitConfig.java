@@ -0,0 +1,48 @@
+package ru.practicum.shareit.gateway.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Ограничение частоты (shareit-gateway.rate-limit.*) и адаптивный предел одновременных запросов
+ * (shareit-gateway.concurrency-limit.*). Фильтр стоит первым, чтобы отклоненный запрос стоил как можно меньше.
+ */
+@Configuration
+@EnableConfigurationProperties({RateLimitProperties.class, ConcurrencyLimitProperties.class})
+public class GatewayLimitConfig {
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties) {
+        return new RateLimiter(properties);
+    }
+
+    /**
+     * Текущий предел и число запросов в работе доступны как gateway.concurrency.limit
+     * и gateway.concurrency.in-flight.
+     */
+    @Bean
+    public AdaptiveConcurrencyLimit adaptiveConcurrencyLimit(ConcurrencyLimitProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties);
+        Gauge.builder("gateway.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .register(meterRegistry);
+        return limit;
+    }
+
+    @Bean
+    public FilterRegistrationBean<GatewayLimitFilter> gatewayLimitFilter(RateLimiter rateLimiter,
+                                                                         AdaptiveConcurrencyLimit concurrencyLimit,
+                                                                         MeterRegistry meterRegistry) {
+        FilterRegistrationBean<GatewayLimitFilter> registration =
+                new FilterRegistrationBean<>(new GatewayLimitFilter(rateLimiter, concurrencyLimit, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.gateway.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отсекает лишние запросы до контроллеров, то есть без обращения к серверу. Пользователь, исчерпавший
+ * ведро маршрута, получает 429, а при превышении общего предела одновременных запросов - 503.
+ * В обоих случаях в Retry-After указано, через сколько секунд стоит повторить запрос. Время ответа
+ * для предела здесь не измеряется: его передает ConcurrencyLimitInterceptor по каждому обращению к серверу.
+ * Метрика gateway.limit.rejected с тегом reason=rate|concurrency.
+ */
+@Slf4j
+public class GatewayLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final Counter rateRejected;
+
+    private final Counter concurrencyRejected;
+
+    public GatewayLimitFilter(RateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit,
+                              MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+        this.rateRejected = counter(meterRegistry, "rate");
+        this.concurrencyRejected = counter(meterRegistry, "concurrency");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long wait = rateLimiter.acquire(request);
+        if (wait > 0) {
+            rateRejected.increment();
+            log.debug("Пользователь {} превысил лимит запросов к {}", request.getHeader("X-Sharer-User-Id"),
+                    request.getRequestURI());
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, TimeUnit.NANOSECONDS.toSeconds(wait - 1) + 1,
+                    "Слишком много запросов, повторите позже");
+            return;
+        }
+        if (!concurrencyLimit.tryAcquire()) {
+            concurrencyRejected.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Сервер перегружен, повторите позже");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            concurrencyLimit.release();
+        }
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                               String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("gateway.limit.rejected")
+                .description("Запросы, отклоненные гейтвеем без обращения к серверу")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
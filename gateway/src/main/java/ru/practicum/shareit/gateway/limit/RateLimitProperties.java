@@ -0,0 +1,49 @@
+package ru.practicum.shareit.gateway.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Политика ограничения частоты запросов: у каждого пользователя свое ведро токенов на каждый маршрут.
+ * Маршрут выбирается по первому подходящему шаблону пути и методу, поэтому более частные шаблоны идут раньше.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Сколько ведер держится в памяти, сверх этого вытесняются редко используемые.
+     */
+    private int maxBuckets = 100_000;
+
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        /**
+         * Шаблон пути в синтаксисе AntPathMatcher, например /items/search.
+         */
+        private String pattern;
+
+        /**
+         * HTTP-метод, пусто - любой.
+         */
+        private String method;
+
+        /**
+         * Размер ведра - сколько запросов подряд проходит без ожидания.
+         */
+        private int capacity = 50;
+
+        /**
+         * Сколько токенов добавляется в ведро за секунду.
+         */
+        private double refillPerSecond = 20;
+    }
+}
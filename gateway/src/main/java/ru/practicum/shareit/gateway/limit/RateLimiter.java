@@ -0,0 +1,84 @@
+package ru.practicum.shareit.gateway.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+
+/**
+ * Ведра токенов по паре (маршрут, X-Sharer-User-Id). Запрос без заголовка учитывается по адресу клиента.
+ * Ведро удаляется из памяти, как только снова наполнилось бы до краев: новое ведро ничем от него
+ * не отличается. Если ведер больше maxBuckets, Caffeine вытесняет редко используемые, так что клиент,
+ * перебирающий X-Sharer-User-Id, не раздувает память. Обе очистки идут по ходу работы кэша, без обхода всех ведер.
+ */
+public class RateLimiter {
+
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    private final RateLimitProperties properties;
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimiter(RateLimitProperties properties) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfter(new UntilFull())
+                .build();
+    }
+
+    /**
+     * Возвращает 0, если запрос можно пропустить, иначе через сколько наносекунд появится токен.
+     */
+    public long acquire(HttpServletRequest request) {
+        RateLimitProperties.Route route = properties.isEnabled() ? findRoute(request) : null;
+        if (route == null) {
+            return 0;
+        }
+        String user = request.getHeader(USER_HEADER);
+        String key = route.getPattern() + " " + route.getMethod() + " "
+                + (user != null ? user : "ip:" + request.getRemoteAddr());
+        long now = System.nanoTime();
+        return buckets.get(key, k -> new TokenBucket(route.getCapacity(), route.getRefillPerSecond(), now))
+                .tryAcquire(now);
+    }
+
+    long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+
+    private RateLimitProperties.Route findRoute(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if ((route.getMethod() == null || route.getMethod().isBlank()
+                    || route.getMethod().equalsIgnoreCase(request.getMethod()))
+                    && pathMatcher.match(route.getPattern(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private static final class UntilFull implements Expiry<String, TokenBucket> {
+
+        @Override
+        public long expireAfterCreate(String key, TokenBucket bucket, long currentTime) {
+            return bucket.nanosUntilFull(currentTime);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, TokenBucket bucket, long currentTime, long currentDuration) {
+            return bucket.nanosUntilFull(currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, TokenBucket bucket, long currentTime, long currentDuration) {
+            return bucket.nanosUntilFull(currentTime);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.gateway.limit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ведро токенов в форме GCRA: все состояние - одно число, момент, когда ведро снова станет полным
+ * без учета одного токена. Запрос берет токен одним compareAndSet, без блокировок.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+
+    private final long burstNanos;
+
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(int capacity, double refillPerSecond, long now) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = emissionIntervalNanos * (Math.max(capacity, 1) - 1);
+        this.theoreticalArrival = new AtomicLong(now);
+    }
+
+    /**
+     * Берет токен. Возвращает 0, если токен выдан, иначе сколько наносекунд ждать следующего.
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long start = Math.max(arrival, now);
+            long wait = start - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Через сколько наносекунд ведро станет полным, если из него больше не брать, с запасом на токен,
+     * который запрос возьмет сразу после этого вызова.
+     */
+    long nanosUntilFull(long now) {
+        return Math.max(0, theoreticalArrival.get() - now) + emissionIntervalNanos;
+    }
+}
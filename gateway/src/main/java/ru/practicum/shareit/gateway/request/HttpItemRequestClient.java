@@ -1,48 +1,58 @@
-package ru.practicum.shareit.request;
+package ru.practicum.shareit.gateway.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.client.BaseClient;
-import ru.practicum.shareit.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.gateway.client.BaseClient;
+import ru.practicum.shareit.gateway.client.GatewayClientConfig;
+import ru.practicum.shareit.gateway.client.ServerEndpoint;
+import ru.practicum.shareit.gateway.request.dto.CreateItemRequestDto;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Service
-public class ItemRequestClient extends BaseClient {
+@ConditionalOnExpression(GatewayClientConfig.HTTP_CLIENT_MODE)
+public class HttpItemRequestClient extends BaseClient implements ItemRequestClient {
 
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url:http://localhost:9090}") String serverUrl, RestTemplateBuilder builder) {
+    public HttpItemRequestClient(ServerEndpoint server, RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory, @Value("${shareit-server.passthrough:true}") boolean passthrough) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(server.getBaseUrl() + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                passthrough
         );
     }
 
+    @Override
     public ResponseEntity<Object> createItemRequest(long userId, CreateItemRequestDto dto) {
         return post("", userId, dto);
     }
 
+    @Override
     public ResponseEntity<Object> getItemRequests(long userId) {
         return get("", userId);
     }
 
+    @Override
     public ResponseEntity<Object> getAllRequests(long userId, int from, int size) {
         Map<String, Object> parameters = new HashMap<>();
         parameters.put("from", from);
         parameters.put("size", size);
-        return get("/all", userId, parameters);
+        return get("/all?from={from}&size={size}", userId, parameters);
     }
 
+    @Override
     public ResponseEntity<Object> getItemRequest(long userId, long requestId) {
         return get("/" + requestId, userId);
     }
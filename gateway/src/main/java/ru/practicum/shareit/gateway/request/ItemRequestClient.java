@@ -0,0 +1,18 @@
+package ru.practicum.shareit.gateway.request;
+
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.gateway.request.dto.CreateItemRequestDto;
+
+/**
+ * Обращения гейтвея к запросам вещей на сервере. Ответ передается клиенту как есть: статус, заголовки и тело сервера.
+ */
+public interface ItemRequestClient {
+
+    ResponseEntity<Object> createItemRequest(long userId, CreateItemRequestDto dto);
+
+    ResponseEntity<Object> getItemRequests(long userId);
+
+    ResponseEntity<Object> getAllRequests(long userId, int from, int size);
+
+    ResponseEntity<Object> getItemRequest(long userId, long requestId);
+}
@@ -1,11 +1,11 @@
-package ru.practicum.shareit.request;
+package ru.practicum.shareit.gateway.request;
 
 import jakarta.validation.Valid;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.request.dto.CreateItemRequestDto;
+import ru.practicum.shareit.gateway.request.dto.CreateItemRequestDto;
 
 /**
  * TODO Sprint add-item-requests.
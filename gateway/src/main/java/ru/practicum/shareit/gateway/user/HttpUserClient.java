@@ -0,0 +1,55 @@
+package ru.practicum.shareit.gateway.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.gateway.client.BaseClient;
+import ru.practicum.shareit.gateway.client.GatewayClientConfig;
+import ru.practicum.shareit.gateway.client.ServerEndpoint;
+import ru.practicum.shareit.gateway.user.dto.UserDto;
+
+
+@Service
+@ConditionalOnExpression(GatewayClientConfig.HTTP_CLIENT_MODE)
+public class HttpUserClient extends BaseClient implements UserClient {
+
+    private static final String API_PREFIX = "/users";
+
+    @Autowired
+    public HttpUserClient(ServerEndpoint server, RestTemplateBuilder builder,
+            ClientHttpRequestFactory requestFactory, @Value("${shareit-server.passthrough:true}") boolean passthrough) {
+        super(
+                builder
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(server.getBaseUrl() + API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                passthrough
+        );
+    }
+
+    @Override
+    public ResponseEntity<Object> getUser(long id) {
+        return get("/" + id);
+    }
+
+    @Override
+    public ResponseEntity<Object> createUser(UserDto dto) {
+        return post("",dto);
+    }
+
+    @Override
+    public ResponseEntity<Object> updateUser(long id,UserDto dto) {
+        return patch("/" + id, dto);
+    }
+
+    @Override
+    public void deleteUser(long id) {
+        delete("/" + id);
+    }
+
+}
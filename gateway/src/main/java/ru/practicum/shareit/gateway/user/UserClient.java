@@ -0,0 +1,18 @@
+package ru.practicum.shareit.gateway.user;
+
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.gateway.user.dto.UserDto;
+
+/**
+ * Обращения гейтвея к пользователям на сервере. Ответ передается клиенту как есть: статус, заголовки и тело сервера.
+ */
+public interface UserClient {
+
+    ResponseEntity<Object> getUser(long id);
+
+    ResponseEntity<Object> createUser(UserDto dto);
+
+    ResponseEntity<Object> updateUser(long id, UserDto dto);
+
+    void deleteUser(long id);
+}
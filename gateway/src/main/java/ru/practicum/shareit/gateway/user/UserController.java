@@ -1,14 +1,13 @@
-package ru.practicum.shareit.user;
+package ru.practicum.shareit.gateway.user;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.gateway.user.dto.UserDto;
 
 @RestController
 @RequestMapping(path = "/users")
@@ -26,12 +25,7 @@ public class UserController {
 
     @PostMapping
     public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto userDto) {
-        ResponseEntity<Object> response = userClient.createUser(userDto);
-        if (response.getStatusCode() == HttpStatus.CONFLICT) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(response.getBody());
-        }
-
-        return ResponseEntity.ok(response.getBody());
+        return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{id}")
@@ -1,58 +0,0 @@
-package ru.practicum.shareit.item;
-
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
-import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.shareit.client.BaseClient;
-import ru.practicum.shareit.item.dto.CreateCommentDto;
-import ru.practicum.shareit.item.dto.ItemDto;
-
-import java.util.Map;
-
-@Service
-public class ItemClient extends BaseClient {
-
-    private static final String API_PREFIX = "/items";
-
-    @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
-        );
-    }
-
-    public ResponseEntity<Object> createItem(long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
-    }
-
-    public ResponseEntity<Object> updateItem(long userId, long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
-    }
-
-    public ResponseEntity<Object> getItem(long userId, long itemId) {
-        return get("/" + itemId, userId);
-    }
-
-    public ResponseEntity<Object> getItemUser(long userId) {
-        return get("", userId);
-    }
-
-    public ResponseEntity<Object> searchItem(long userId, String text) {
-        Map<String, Object> params = Map.of(
-                "text", text
-        );
-
-        return get("", userId, params);
-    }
-
-    public ResponseEntity<Object> addComment(long userId, CreateCommentDto createCommentDto, long itemId) {
-        return post("/" + itemId + "/comment", userId, createCommentDto);
-    }
-}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.gateway.batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import ru.practicum.shareit.gateway.ShareItGateway;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Пакет из трех медленных GET-запросов против заглушки сервера: части идут на сервер параллельно,
+ * и каждая проходит валидацию контроллера гейтвея. Предел одновременных запросов зафиксирован на
+ * CONCURRENCY_LIMIT: одно место занимает сам пакет, остальные - его части.
+ */
+class BatchControllerTest {
+
+    private static final long SERVER_DELAY_MILLIS = 500;
+
+    private static final int CONCURRENCY_LIMIT = 5;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static HttpServer server;
+
+    private static ExecutorService serverExecutor;
+
+    private static ServletWebServerApplicationContext gateway;
+
+    private static HttpClient client;
+
+    @BeforeAll
+    static void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/users", exchange -> respond(exchange, 200, "{\"id\":1,\"name\":\"user\"}"));
+        server.createContext("/items", exchange -> {
+            exchange.getResponseHeaders().add("X-Next-Cursor", "next");
+            respond(exchange, 200, "[{\"id\":1,\"name\":\"Дрель\"}]");
+        });
+        server.createContext("/bookings", exchange -> respond(exchange, 200, "[]"));
+        server.createContext("/requests", exchange -> respond(exchange, 404, "{\"message\":\"Запрос не найден\"}"));
+        server.start();
+
+        gateway = (ServletWebServerApplicationContext) new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                        "--shareit-server.response-cache.enabled=false",
+                        "--shareit-gateway.concurrency-limit.initial-limit=" + CONCURRENCY_LIMIT,
+                        "--shareit-gateway.concurrency-limit.min-limit=" + CONCURRENCY_LIMIT,
+                        "--shareit-gateway.concurrency-limit.max-limit=" + CONCURRENCY_LIMIT,
+                        "--logging.level.org.springframework.web.client.RestTemplate=INFO");
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stop() {
+        client.close();
+        gateway.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void batch_ShouldCallServerConcurrentlyAndKeepPartOrder() throws Exception {
+        long started = System.nanoTime();
+        JsonNode parts = batch("[{\"path\":\"/users/1\"},{\"path\":\"/items?from=0&size=10\"},"
+                + "{\"path\":\"/bookings/owner?state=ALL\"},{\"path\":\"/requests/7\"}]");
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals(4, parts.size());
+        assertEquals(200, parts.get(0).get("status").asInt());
+        assertEquals("user", parts.get(0).get("body").get("name").asText());
+        assertEquals("Дрель", parts.get(1).get("body").get(0).get("name").asText());
+        assertEquals("next", header(parts.get(1), "X-Next-Cursor"));
+        assertEquals("/bookings/owner?state=ALL", parts.get(2).get("path").asText());
+        assertEquals(404, parts.get(3).get("status").asInt());
+        assertEquals("Запрос не найден", parts.get(3).get("body").get("message").asText());
+        assertTrue(millis < SERVER_DELAY_MILLIS * 3, "Пакет выполнялся " + millis + " мс");
+    }
+
+    @Test
+    void batch_ShouldValidateEachPartLikeSeparateRequest() throws Exception {
+        JsonNode parts = batch("[{\"path\":\"/bookings?from=-1\"},{\"path\":\"/bookings?state=ALL\"},"
+                + "{\"path\":\"/unknown\"}]");
+
+        assertEquals(400, parts.get(0).get("status").asInt());
+        assertEquals(200, parts.get(1).get("status").asInt());
+        assertEquals(404, parts.get(2).get("status").asInt());
+    }
+
+    @Test
+    void batch_WhenPartsExceedConcurrencyLimit_ShouldAnswer503ForPartsWithoutPermit() throws Exception {
+        JsonNode parts = batch("[{\"path\":\"/users/1\"},{\"path\":\"/users/2\"},{\"path\":\"/users/3\"},"
+                + "{\"path\":\"/users/4\"},{\"path\":\"/users/5\"},{\"path\":\"/users/6\"}]");
+
+        int rejected = 0;
+        for (JsonNode part : parts) {
+            if (part.get("status").asInt() == 503) {
+                rejected++;
+                assertEquals("1", header(part, "Retry-After"));
+            } else {
+                assertEquals(200, part.get("status").asInt());
+            }
+        }
+        assertEquals(parts.size() - (CONCURRENCY_LIMIT - 1), rejected);
+    }
+
+    private static JsonNode batch(String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + gateway.getWebServer().getPort()
+                        + "/batch"))
+                .header("Content-Type", "application/json")
+                .header("X-Sharer-User-Id", "1")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return MAPPER.readTree(response.body());
+    }
+
+    private static String header(JsonNode part, String name) {
+        for (Iterator<Map.Entry<String, JsonNode>> fields = part.get("headers").fields(); fields.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getKey().equalsIgnoreCase(name)) {
+                return field.getValue().get(0).asText();
+            }
+        }
+        return null;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        try {
+            Thread.sleep(SERVER_DELAY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
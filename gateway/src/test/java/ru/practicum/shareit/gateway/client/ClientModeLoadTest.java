@@ -0,0 +1,142 @@
+package ru.practicum.shareit.gateway.client;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import ru.practicum.shareit.gateway.ShareItGateway;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочное сравнение режимов shareit-server.client-mode на заглушке сервера, отвечающей с задержкой.
+ * Одновременно отправляется REQUESTS запросов - больше, чем потоков у Tomcat по умолчанию (200);
+ * для каждого режима печатаются максимальное число запросов, одновременно ожидающих ответа сервера,
+ * p99 задержки и занятая куча. Оба режима работают в одной JVM, то есть с одинаковым -Xmx.
+ * Проверяется только число запросов в полете: p99 зависит от числа ядер и прогрева JIT и служит
+ * для сравнения на конкретной машине.
+ */
+@Tag("benchmark")
+@Slf4j
+class ClientModeLoadTest {
+
+    private static final int REQUESTS = 300;
+
+    private static final long SERVER_DELAY_MILLIS = 2000;
+
+    private static final byte[] USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private static final AtomicInteger inFlight = new AtomicInteger();
+
+    private static final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private static HttpServer server;
+
+    private static HttpClient client;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/users", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(SERVER_DELAY_MILLIS);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, USER.length);
+                try (OutputStream body = exchange.getResponseBody()) {
+                    body.write(USER);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+        server.start();
+        client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        client.close();
+    }
+
+    @Test
+    void virtualMode_ShouldKeepMoreRequestsInFlight() {
+        Result pooled = run("pooled");
+        Result virtual = run("virtual");
+
+        log.info("pooled: в полете до {} запросов, p99 {} мс, куча {} МБ",
+                pooled.maxInFlight(), pooled.p99Millis(), pooled.heapMegabytes());
+        log.info("virtual: в полете до {} запросов, p99 {} мс, куча {} МБ",
+                virtual.maxInFlight(), virtual.p99Millis(), virtual.heapMegabytes());
+
+        assertEquals(REQUESTS, pooled.succeeded());
+        assertEquals(REQUESTS, virtual.succeeded());
+        assertTrue(virtual.maxInFlight() > pooled.maxInFlight());
+    }
+
+    private Result run(String mode) {
+        try (ServletWebServerApplicationContext gateway = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(ShareItGateway.class)
+                        .run("--server.port=0",
+                                "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                                "--shareit-server.client-mode=" + mode,
+                                "--shareit-server.single-flight.enabled=false",
+                                "--shareit-gateway.rate-limit.enabled=false",
+                                "--shareit-gateway.concurrency-limit.enabled=false",
+                                "--shareit-server.resilience.enabled=false",
+                                "--logging.level.org.springframework.web.client.RestTemplate=INFO")) {
+            URI uri = URI.create("http://localhost:" + gateway.getWebServer().getPort() + "/users/1");
+            warmUp(uri);
+            maxInFlight.set(0);
+
+            List<CompletableFuture<Long>> calls = new ArrayList<>();
+            for (int i = 0; i < REQUESTS; i++) {
+                long started = System.nanoTime();
+                calls.add(client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+                        .thenApply(response -> response.statusCode() == 200 ? System.nanoTime() - started : -1L));
+            }
+            List<Long> latencies = new ArrayList<>(calls.stream().map(CompletableFuture::join).toList());
+            int succeeded = (int) latencies.stream().filter(latency -> latency >= 0).count();
+            Collections.sort(latencies);
+            long p99 = latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1) / 1_000_000;
+            long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024);
+            return new Result(maxInFlight.get(), p99, heap, succeeded);
+        }
+    }
+
+    private void warmUp(URI uri) {
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding()));
+        }
+        calls.forEach(CompletableFuture::join);
+    }
+
+    private record Result(int maxInFlight, long p99Millis, long heapMegabytes, int succeeded) {
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.gateway.client;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import ru.practicum.shareit.gateway.limit.AdaptiveConcurrencyLimit;
+import ru.practicum.shareit.gateway.limit.ConcurrencyLimitProperties;
+
+import java.io.IOException;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private final ConcurrencyLimitProperties limitProperties = new ConcurrencyLimitProperties();
+
+    private final ResilienceProperties resilienceProperties = new ResilienceProperties();
+
+    private AdaptiveConcurrencyLimit limit;
+
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        limitProperties.setInitialLimit(100);
+        ResilienceProperties.Route search = new ResilienceProperties.Route();
+        search.setPattern("/items/search");
+        search.setName("items-search");
+        resilienceProperties.getRoutes().add(search);
+        limit = new AdaptiveConcurrencyLimit(limitProperties);
+        interceptor = new ConcurrencyLimitInterceptor(limit, resilienceProperties);
+    }
+
+    @Test
+    void intercept_WhenServerSlowsDown_ShouldShrinkLimit() {
+        call("/users/1", 0);
+
+        call("/users/1", 50);
+
+        assertEquals(90, limit.getLimit());
+    }
+
+    @Test
+    void intercept_ShouldKeepSeparateBaselinePerRoute() {
+        call("/users/1", 0);
+        call("/items/search", 50);
+
+        call("/items/search", 50);
+
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    void intercept_WhenConnectionFails_ShouldStillRecordResponseTime() {
+        call("/users/1", 0);
+
+        assertThrows(IOException.class, () -> interceptor.intercept(
+                new MockClientHttpRequest(HttpMethod.GET, URI.create("/users/1")), new byte[0], (request, body) -> {
+                    sleep(50);
+                    throw new IOException("Connection reset");
+                }));
+
+        assertEquals(90, limit.getLimit());
+    }
+
+    private void call(String path, long delayMillis) {
+        ClientHttpRequestExecution execution = (request, body) -> {
+            sleep(delayMillis);
+            return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+        };
+        try {
+            interceptor.intercept(new MockClientHttpRequest(HttpMethod.GET, URI.create(path)), new byte[0], execution)
+                    .close();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EtagCacheInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ResponseCacheProperties properties = new ResponseCacheProperties();
+
+    private final List<String> sentIfNoneMatch = new ArrayList<>();
+
+    private String serverBody = "item v1";
+
+    private HttpStatus serverFailure;
+
+    private EtagCacheInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        properties.getRoutes().add("/items/*");
+        properties.setMaxSize(DataSize.ofBytes(100));
+        interceptor = new EtagCacheInterceptor(properties, meterRegistry);
+    }
+
+    @Test
+    void intercept_WhenNotModified_ShouldReturnCachedBody() throws IOException {
+        assertEquals("item v1", call("/items/1", 1L));
+        assertEquals("item v1", call("/items/1", 1L));
+
+        assertNull(sentIfNoneMatch.get(0));
+        assertEquals("\"item v1\"", sentIfNoneMatch.get(1));
+        assertEquals(1, count("miss"));
+        assertEquals(1, count("revalidated"));
+    }
+
+    @Test
+    void intercept_WhenModified_ShouldReturnAndStoreNewBody() throws IOException {
+        call("/items/1", 1L);
+        serverBody = "item v2";
+
+        assertEquals("item v2", call("/items/1", 1L));
+        assertEquals("item v2", call("/items/1", 1L));
+
+        assertEquals("\"item v2\"", sentIfNoneMatch.get(2));
+        assertEquals(1, count("modified"));
+        assertEquals(1, count("revalidated"));
+    }
+
+    @Test
+    void intercept_ShouldKeepUsersApart() throws IOException {
+        call("/items/1", 1L);
+        call("/items/1", 2L);
+
+        assertNull(sentIfNoneMatch.get(1));
+        assertEquals(2, count("miss"));
+    }
+
+    @Test
+    void intercept_ShouldKeepTotalSizeWithinMaxSize() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            call("/items/" + i, 1L);
+        }
+
+        assertTrue(interceptor.weightedSize() <= 100, () -> String.valueOf(interceptor.weightedSize()));
+        assertTrue(interceptor.size() < 10);
+    }
+
+    @Test
+    void intercept_WhenServerFails_ShouldKeepEntry() throws IOException {
+        call("/items/1", 1L);
+        serverFailure = HttpStatus.SERVICE_UNAVAILABLE;
+
+        call("/items/1", 1L);
+        serverFailure = null;
+
+        assertEquals("item v1", call("/items/1", 1L));
+        assertEquals("\"item v1\"", sentIfNoneMatch.get(2));
+        assertEquals(1, count("revalidated"));
+    }
+
+    @Test
+    void intercept_ShouldSkipOtherRoutesAndLargeResponses() throws IOException {
+        call("/users/1", 1L);
+        call("/users/1", 1L);
+        assertEquals(0, interceptor.size());
+
+        properties.setMaxEntrySize(DataSize.ofBytes(3));
+        call("/items/1", 1L);
+        assertEquals(0, interceptor.size());
+    }
+
+    private String call(String path, Long userId) throws IOException {
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+                URI.create("http://localhost:9090" + path));
+        request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+        try (ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution())) {
+            return new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Сервер, ETag которого равен телу ответа в кавычках.
+     */
+    private ClientHttpRequestExecution execution() {
+        return (request, body) -> {
+            String ifNoneMatch = request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            sentIfNoneMatch.add(ifNoneMatch);
+            if (serverFailure != null) {
+                return new MockClientHttpResponse(new byte[0], serverFailure);
+            }
+            String etag = "\"" + serverBody + "\"";
+            MockClientHttpResponse response = etag.equals(ifNoneMatch)
+                    ? new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED)
+                    : new MockClientHttpResponse(serverBody.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+            response.getHeaders().setETag(etag);
+            return response;
+        };
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.response.cache.requests").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.gateway.client;
+
+import com.sun.management.OperatingSystemMXBean;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import ru.practicum.shareit.gateway.ShareItGateway;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Процессорное время гейтвея на один запрос списка бронирований из BOOKINGS элементов:
+ * с разбором и повторной сериализацией JSON (shareit-server.passthrough=false) и с передачей байтов.
+ * Из времени процесса вычитается время тех же запросов напрямую к заглушке сервера,
+ * так что остается доля самого гейтвея.
+ */
+@Tag("benchmark")
+@Slf4j
+class PassthroughBenchmarkTest {
+
+    private static final int BOOKINGS = 500;
+
+    private static final int WARM_UP = 300;
+
+    private static final int ITERATIONS = 500;
+
+    private static final OperatingSystemMXBean OS =
+            (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private static byte[] bookings;
+
+    private static HttpServer server;
+
+    private static HttpClient client;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int i = 1; i <= BOOKINGS; i++) {
+            json.add("{\"id\":" + i + ",\"start\":\"2026-01-01T10:00:00\",\"end\":\"2026-01-02T10:00:00\","
+                    + "\"status\":\"APPROVED\",\"booker\":{\"id\":" + i + ",\"name\":\"booker" + i + "\"},"
+                    + "\"item\":{\"id\":" + i + ",\"name\":\"Дрель " + i + "\"}}");
+        }
+        bookings = json.toString().getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bookings.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(bookings);
+            }
+        });
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        client.close();
+    }
+
+    @Test
+    void passthrough_ShouldSpendLessGatewayCpuPerRequest() {
+        URI direct = URI.create("http://localhost:" + server.getAddress().getPort() + "/bookings");
+        long baseline = cpuMicrosPerRequest(direct);
+
+        Result parsed = run(false);
+        Result passthrough = run(true);
+        long parsedCpu = parsed.cpuMicros() - baseline;
+        long passthroughCpu = passthrough.cpuMicros() - baseline;
+
+        log.info("Список из {} бронирований ({} КБ): с разбором JSON {} мкс CPU на запрос, без разбора {} мкс",
+                BOOKINGS, bookings.length / 1024, parsedCpu, passthroughCpu);
+
+        assertEquals(new String(bookings, StandardCharsets.UTF_8), parsed.body());
+        assertEquals(new String(bookings, StandardCharsets.UTF_8), passthrough.body());
+        assertEquals("application/json", passthrough.contentType());
+        assertTrue(passthroughCpu < parsedCpu);
+    }
+
+    private Result run(boolean passthrough) {
+        try (ServletWebServerApplicationContext gateway = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(ShareItGateway.class)
+                        .run("--server.port=0",
+                                "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                                "--shareit-server.passthrough=" + passthrough,
+                                "--shareit-gateway.rate-limit.enabled=false",
+                                "--logging.level.org.springframework.web.client.RestTemplate=INFO")) {
+            URI uri = URI.create("http://localhost:" + gateway.getWebServer().getPort() + "/bookings?state=ALL");
+            HttpResponse<String> response = client.sendAsync(request(uri), HttpResponse.BodyHandlers.ofString()).join();
+            return new Result(cpuMicrosPerRequest(uri), response.body(),
+                    response.headers().firstValue("Content-Type").orElse(null));
+        }
+    }
+
+    private long cpuMicrosPerRequest(URI uri) {
+        for (int i = 0; i < WARM_UP; i++) {
+            client.sendAsync(request(uri), HttpResponse.BodyHandlers.discarding()).join();
+        }
+        long started = OS.getProcessCpuTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            client.sendAsync(request(uri), HttpResponse.BodyHandlers.discarding()).join();
+        }
+        return (OS.getProcessCpuTime() - started) / ITERATIONS / 1_000;
+    }
+
+    private static HttpRequest request(URI uri) {
+        return HttpRequest.newBuilder(uri).header("X-Sharer-User-Id", "1").build();
+    }
+
+    private record Result(long cpuMicros, String body, String contentType) {
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ResilienceProperties properties = new ResilienceProperties();
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofSeconds(10))
+            .build());
+
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private ResilienceInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        properties.getRoutes().add(route("/items/search", "items-search"));
+        properties.getRoutes().add(route("/bookings/**", "bookings"));
+        interceptor = new ResilienceInterceptor(properties, circuitBreakerRegistry, bulkheadRegistry, meterRegistry);
+    }
+
+    @Test
+    void intercept_WhenServerFails_ShouldOpenCircuitAndFailFast() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, call("/items/search", HttpStatus.INTERNAL_SERVER_ERROR));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("items-search").getState());
+        try (ClientHttpResponse rejected = interceptor.intercept(request("/items/search"), new byte[0],
+                execution(HttpStatus.OK))) {
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+            assertEquals("10", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        }
+        assertEquals(4, upstreamCalls.get());
+        assertEquals(1, meterRegistry.get("gateway.resilience.rejected")
+                .tag("route", "items-search").tag("reason", "circuit-open").counter().count());
+    }
+
+    @Test
+    void intercept_WhenOneRouteIsOpen_ShouldKeepOtherRoutesWorking() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            call("/items/search", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+        assertEquals(HttpStatus.OK, call("/bookings/1", HttpStatus.OK));
+    }
+
+    @Test
+    void intercept_ShouldNotCountClientErrorsAsFailures() throws IOException {
+        for (int i = 0; i < 4; i++) {
+            call("/items/search", HttpStatus.NOT_FOUND);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreakerRegistry.circuitBreaker("items-search").getState());
+    }
+
+    @Test
+    void intercept_WhenBulkheadIsFull_ShouldRejectWithoutCallingServer() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<ClientHttpResponse> slow = executor.submit(() -> interceptor.intercept(request("/bookings/1"),
+                    new byte[0], (request, body) -> {
+                        entered.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return new MockClientHttpResponse(new byte[0], HttpStatus.OK);
+                    }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, call("/bookings/2", HttpStatus.OK));
+            release.countDown();
+            slow.get(5, TimeUnit.SECONDS).close();
+        }
+        assertEquals(0, upstreamCalls.get());
+        assertEquals(HttpStatus.OK, call("/bookings/2", HttpStatus.OK));
+    }
+
+    @Test
+    void intercept_WhenDisabled_ShouldAlwaysCallServer() throws IOException {
+        properties.setEnabled(false);
+
+        for (int i = 0; i < 6; i++) {
+            assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, call("/items/search", HttpStatus.INTERNAL_SERVER_ERROR));
+        }
+        assertEquals(6, upstreamCalls.get());
+    }
+
+    private HttpStatus call(String path, HttpStatus status) throws IOException {
+        try (ClientHttpResponse response = interceptor.intercept(request(path), new byte[0], execution(status))) {
+            return HttpStatus.valueOf(response.getStatusCode().value());
+        }
+    }
+
+    private ClientHttpRequestExecution execution(HttpStatus status) {
+        return (request, body) -> {
+            upstreamCalls.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+    }
+
+    private static MockClientHttpRequest request(String path) {
+        return new MockClientHttpRequest(HttpMethod.GET, URI.create("http://localhost:9090" + path));
+    }
+
+    private static ResilienceProperties.Route route(String pattern, String name) {
+        ResilienceProperties.Route route = new ResilienceProperties.Route();
+        route.setPattern(pattern);
+        route.setName(name);
+        return route;
+    }
+}
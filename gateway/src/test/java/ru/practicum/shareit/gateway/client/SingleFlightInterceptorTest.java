@@ -0,0 +1,135 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightInterceptorTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private SingleFlightInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        SingleFlightProperties properties = new SingleFlightProperties();
+        properties.getRoutes().add(route("/items/search", false));
+        properties.getRoutes().add(route("/items/*", true));
+        interceptor = new SingleFlightInterceptor(properties, meterRegistry);
+    }
+
+    @Test
+    void intercept_ShouldShareOneUpstreamCallBetweenIdenticalRequests() throws Exception {
+        List<String> bodies = callConcurrently(HttpMethod.GET, "/items/search?text=дрель", i -> 1L);
+
+        assertEquals(1, upstreamCalls.get());
+        assertTrue(bodies.stream().allMatch("response 1"::equals));
+        assertEquals(CALLERS - 1, meterRegistry.get("gateway.coalescing.requests")
+                .tag("result", "coalesced").counter().count());
+        assertEquals((double) (CALLERS - 1) / CALLERS, meterRegistry.get("gateway.coalescing.ratio").gauge().value());
+    }
+
+    @Test
+    void intercept_ShouldKeepUsersApartOnPerUserRoutes() throws Exception {
+        callConcurrently(HttpMethod.GET, "/items/1", i -> (long) (i % 2));
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void intercept_ShouldNotCoalesceWritesAndUnknownRoutes() throws Exception {
+        callConcurrently(HttpMethod.POST, "/items/1", i -> 1L);
+        assertEquals(CALLERS, upstreamCalls.get());
+
+        upstreamCalls.set(0);
+        callConcurrently(HttpMethod.GET, "/bookings/1", i -> 1L);
+        assertEquals(CALLERS, upstreamCalls.get());
+    }
+
+    @Test
+    void intercept_ShouldFanOutUpstreamFailure() {
+        MockClientHttpRequest request = request(HttpMethod.GET, "/items/search?text=x", 1L);
+        release.countDown();
+
+        assertThrows(IOException.class, () -> interceptor.intercept(request, new byte[0], (req, body) -> {
+            throw new IOException("Connection refused");
+        }));
+        assertDoesNotThrow(() -> interceptor.intercept(request, new byte[0], execution()).close());
+    }
+
+    private List<String> callConcurrently(HttpMethod method, String path, IntFunction<Long> user) throws Exception {
+        List<Future<String>> calls = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CALLERS)) {
+            CountDownLatch started = new CountDownLatch(CALLERS);
+            for (int i = 0; i < CALLERS; i++) {
+                MockClientHttpRequest request = request(method, path, user.apply(i));
+                calls.add(executor.submit(() -> {
+                    started.countDown();
+                    try (ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution())) {
+                        return new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8);
+                    }
+                }));
+            }
+            started.await();
+            TimeUnit.MILLISECONDS.sleep(200);
+            release.countDown();
+            List<String> bodies = new ArrayList<>();
+            for (Future<String> call : calls) {
+                bodies.add(call.get(5, TimeUnit.SECONDS));
+            }
+            return bodies;
+        }
+    }
+
+    private ClientHttpRequestExecution execution() {
+        return (request, body) -> {
+            int call = upstreamCalls.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new MockClientHttpResponse(("response " + call).getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+        };
+    }
+
+    private static MockClientHttpRequest request(HttpMethod method, String path, Long userId) {
+        MockClientHttpRequest request = new MockClientHttpRequest(method, URI.create("http://localhost:9090" + path));
+        request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+        return request;
+    }
+
+    private static SingleFlightProperties.Route route(String pattern, boolean perUser) {
+        SingleFlightProperties.Route route = new SingleFlightProperties.Route();
+        route.setPattern(pattern);
+        route.setPerUser(perUser);
+        return route;
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.gateway.client;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import ru.practicum.shareit.gateway.ShareItGateway;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Пропускная способность и задержка гейтвея при обращении к серверу по TCP и через unix-сокет.
+ * Заглушка сервера - Tomcat с двумя коннекторами, TCP-портом и unix-сокетом, отвечающая сразу.
+ * Клиенты ходят к гейтвею по TCP в обоих случаях, меняется только участок гейтвей - сервер.
+ */
+@Tag("benchmark")
+@Slf4j
+class UnixSocketTransportBenchmarkTest {
+
+    private static final String USER = "{\"id\":1,\"name\":\"user\",\"email\":\"user@mail.ru\"}";
+
+    private static final int CLIENTS = 8;
+
+    private static final int WARM_UP = 500;
+
+    private static final int REQUESTS = 2_000;
+
+    @TempDir
+    static Path socketDir;
+
+    private static Tomcat server;
+
+    private static Path socket;
+
+    private static HttpClient client;
+
+    @BeforeAll
+    static void startServer() throws LifecycleException {
+        socket = socketDir.resolve("server.sock");
+        server = new Tomcat();
+        server.setBaseDir(socketDir.resolve("tomcat").toString());
+        server.setPort(0);
+        Context context = server.addContext("", null);
+        Tomcat.addServlet(context, "users", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.setContentType("application/json");
+                response.getOutputStream().write(USER.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        context.addServletMappingDecoded("/*", "users");
+        server.getConnector();
+        Connector unix = new Connector();
+        unix.setProperty("unixDomainSocketPath", socket.toString());
+        server.getService().addConnector(unix);
+        server.start();
+        client = HttpClient.newHttpClient();
+    }
+
+    @AfterAll
+    static void stopServer() throws LifecycleException {
+        client.close();
+        server.stop();
+        server.destroy();
+    }
+
+    @Test
+    void unixSocket_ShouldServeSameResponsesAsTcp() throws Exception {
+        Result tcp = null;
+        Result unix = null;
+        for (int round = 0; round < 2; round++) {
+            tcp = run("http://localhost:" + server.getConnector().getLocalPort());
+            unix = run("unix:" + socket);
+        }
+
+        log.info("Гейтвей -> сервер по TCP: {} запросов/с, p50 {} мкс, p99 {} мкс; через unix-сокет: {} запросов/с, "
+                        + "p50 {} мкс, p99 {} мкс", tcp.throughput(), tcp.p50Micros(), tcp.p99Micros(),
+                unix.throughput(), unix.p50Micros(), unix.p99Micros());
+
+        assertEquals(REQUESTS, tcp.succeeded());
+        assertEquals(REQUESTS, unix.succeeded());
+    }
+
+    private Result run(String serverUrl) throws Exception {
+        try (ServletWebServerApplicationContext gateway = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(ShareItGateway.class)
+                        .run("--server.port=0",
+                                "--shareit-server.url=" + serverUrl,
+                                "--shareit-server.single-flight.enabled=false",
+                                "--shareit-server.response-cache.enabled=false",
+                                "--shareit-gateway.rate-limit.enabled=false",
+                                "--shareit-gateway.concurrency-limit.enabled=false",
+                                "--logging.level.org.springframework.web.client.RestTemplate=INFO")) {
+            URI uri = URI.create("http://localhost:" + gateway.getWebServer().getPort() + "/users/1");
+            load(uri, WARM_UP);
+
+            long started = System.nanoTime();
+            List<Long> latencies = load(uri, REQUESTS);
+            long elapsed = System.nanoTime() - started;
+
+            int succeeded = (int) latencies.stream().filter(latency -> latency >= 0).count();
+            Collections.sort(latencies);
+            return new Result(REQUESTS * 1_000_000_000L / elapsed,
+                    latencies.get(latencies.size() / 2) / 1_000,
+                    latencies.get((int) Math.ceil(latencies.size() * 0.99) - 1) / 1_000,
+                    succeeded);
+        }
+    }
+
+    /**
+     * CLIENTS клиентов отправляют запросы подряд, каждый следующий - после ответа на предыдущий.
+     */
+    private List<Long> load(URI uri, int requests) throws Exception {
+        List<Future<List<Long>>> clients = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(CLIENTS)) {
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    for (int i = 0; i < requests / CLIENTS; i++) {
+                        long started = System.nanoTime();
+                        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri)
+                                .header("X-Sharer-User-Id", "1").build(), HttpResponse.BodyHandlers.ofString());
+                        boolean ok = response.statusCode() == 200 && USER.equals(response.body());
+                        latencies.add(ok ? System.nanoTime() - started : -1L);
+                    }
+                    return latencies;
+                }));
+            }
+            List<Long> latencies = new ArrayList<>();
+            for (Future<List<Long>> latenciesOfClient : clients) {
+                latencies.addAll(latenciesOfClient.get());
+            }
+            return latencies;
+        }
+    }
+
+    private record Result(long throughput, long p50Micros, long p99Micros, int succeeded) {
+    }
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.gateway.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final String ROUTE = "users";
+
+    private final ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+
+    private AdaptiveConcurrencyLimit limit;
+
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        properties.setInitialLimit(100);
+        properties.setMinLimit(10);
+        properties.setMaxLimit(120);
+        limit = new AdaptiveConcurrencyLimit(properties);
+        now = System.nanoTime();
+    }
+
+    @Test
+    void update_WhenLatencyIsStableAndLimitIsUsed_ShouldGrowUpToMax() {
+        for (int i = 0; i < 50; i++) {
+            sample(ROUTE, RTT, 80);
+        }
+
+        assertEquals(120, limit.getLimit());
+    }
+
+    @Test
+    void update_WhenLatencyIsStableAndLimitIsIdle_ShouldKeepLimit() {
+        for (int i = 0; i < 50; i++) {
+            sample(ROUTE, RTT, 1);
+        }
+
+        assertEquals(100, limit.getLimit());
+    }
+
+    @Test
+    void update_WhenLatencyClimbs_ShouldShrinkOncePerRoundTrip() {
+        sample(ROUTE, RTT, 1);
+        now += RTT * 5;
+
+        sample(ROUTE, RTT * 5, 100);
+        sample(ROUTE, RTT * 5, 100);
+        assertEquals(90, limit.getLimit());
+
+        now += RTT * 5;
+        sample(ROUTE, RTT * 5, 100);
+        assertEquals(81, limit.getLimit());
+    }
+
+    @Test
+    void update_ShouldNotShrinkBelowMin() {
+        properties.setWindow(1000);
+        limit = new AdaptiveConcurrencyLimit(properties);
+        sample(ROUTE, RTT, 1);
+        for (int i = 0; i < 50; i++) {
+            now += RTT * 5;
+            sample(ROUTE, RTT * 5, 100);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    void update_SlowRouteAtItsUsualLatency_ShouldNotShrinkLimitOfFastRoute() {
+        sample(ROUTE, RTT / 100, 1);
+        sample("items-search", RTT * 5, 1);
+
+        for (int i = 0; i < 20; i++) {
+            now += RTT * 5;
+            sample("items-search", RTT * 5, 100);
+            sample(ROUTE, RTT / 100, 100);
+        }
+
+        assertEquals(120, limit.getLimit());
+    }
+
+    @Test
+    void update_WhenRouteLatencyChangesForGood_ShouldCatchUpWithNewBaseline() {
+        sample(ROUTE, RTT, 1);
+        for (int i = 0; i < 200; i++) {
+            now += RTT * 3;
+            sample(ROUTE, RTT * 3, 1);
+        }
+        int settled = limit.getLimit();
+
+        for (int i = 0; i < 10; i++) {
+            now += RTT * 3;
+            sample(ROUTE, RTT * 3, 100);
+        }
+
+        assertEquals(Math.min(120, settled + 10), limit.getLimit());
+    }
+
+    @Test
+    void tryAcquire_AboveLimit_ShouldReject() {
+        properties.setInitialLimit(2);
+        limit = new AdaptiveConcurrencyLimit(properties);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+
+        limit.release();
+        assertTrue(limit.tryAcquire());
+    }
+
+    private void sample(String route, long rtt, int used) {
+        now += RTT;
+        limit.update(route, rtt, used, now);
+    }
+}
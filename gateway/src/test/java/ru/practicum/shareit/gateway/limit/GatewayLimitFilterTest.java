@@ -0,0 +1,123 @@
+package ru.practicum.shareit.gateway.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RateLimitProperties rateLimitProperties = new RateLimitProperties();
+
+    private final ConcurrencyLimitProperties concurrencyLimitProperties = new ConcurrencyLimitProperties();
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private GatewayLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Route search = new RateLimitProperties.Route();
+        search.setPattern("/items/search");
+        search.setMethod("GET");
+        search.setCapacity(3);
+        search.setRefillPerSecond(0.5);
+        rateLimitProperties.getRoutes().add(search);
+        concurrencyLimitProperties.setInitialLimit(2);
+        concurrencyLimitProperties.setMinLimit(1);
+        filter = new GatewayLimitFilter(new RateLimiter(rateLimitProperties),
+                new AdaptiveConcurrencyLimit(concurrencyLimitProperties), meterRegistry);
+    }
+
+    @Test
+    void doFilter_WhenBucketIsEmpty_ShouldAnswer429WithoutForwarding() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, call("GET", "/items/search", 1L).getStatus());
+        }
+
+        MockHttpServletResponse rejected = call("GET", "/items/search", 1L);
+
+        assertEquals(429, rejected.getStatus());
+        assertEquals("2", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(3, forwarded.get());
+        assertEquals(1, meterRegistry.get("gateway.limit.rejected").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void doFilter_ShouldKeepUsersAndRoutesApart() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            call("GET", "/items/search", 1L);
+        }
+
+        assertEquals(200, call("GET", "/items/search", 2L).getStatus());
+        assertEquals(200, call("GET", "/items/1", 1L).getStatus());
+        assertEquals(200, call("POST", "/items/search", 1L).getStatus());
+    }
+
+    @Test
+    void doFilter_WhenDisabled_ShouldForwardEverything() throws Exception {
+        rateLimitProperties.setEnabled(false);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, call("GET", "/items/search", 1L).getStatus());
+        }
+    }
+
+    @Test
+    void doFilter_AboveConcurrencyLimit_ShouldAnswer503() throws Exception {
+        CountDownLatch entered = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            Future<?> first = executor.submit(() -> slowCall(entered, release));
+            Future<?> second = executor.submit(() -> slowCall(entered, release));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse rejected = call("GET", "/users/1", 3L);
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+
+            assertEquals(503, rejected.getStatus());
+            assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+        }
+        assertEquals(200, call("GET", "/users/1", 3L).getStatus());
+    }
+
+    private MockHttpServletResponse call(String method, String path, Long userId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-Sharer-User-Id", userId);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, (req, res) -> forwarded.incrementAndGet());
+        return response;
+    }
+
+    private Void slowCall(CountDownLatch entered, CountDownLatch release) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/1");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest req, jakarta.servlet.ServletResponse res) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        return null;
+    }
+}
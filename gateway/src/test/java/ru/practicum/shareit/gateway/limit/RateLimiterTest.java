@@ -0,0 +1,57 @@
+package ru.practicum.shareit.gateway.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+
+    private final RateLimitProperties.Route route = new RateLimitProperties.Route();
+
+    @BeforeEach
+    void setUp() {
+        route.setPattern("/**");
+        properties.getRoutes().add(route);
+    }
+
+    @Test
+    void acquire_WhenClientRotatesUserIds_ShouldKeepAtMostMaxBuckets() {
+        properties.setMaxBuckets(100);
+        RateLimiter rateLimiter = new RateLimiter(properties);
+
+        for (int user = 0; user < 1_000; user++) {
+            assertEquals(0, rateLimiter.acquire(request(user)));
+        }
+
+        assertTrue(rateLimiter.size() <= 100, () -> String.valueOf(rateLimiter.size()));
+    }
+
+    @Test
+    void acquire_WhenBucketRefills_ShouldForgetIt() throws InterruptedException {
+        route.setCapacity(2);
+        route.setRefillPerSecond(100);
+        RateLimiter rateLimiter = new RateLimiter(properties);
+
+        assertEquals(0, rateLimiter.acquire(request(1)));
+        assertEquals(1, rateLimiter.size());
+
+        // Caffeine проверяет сроки с точностью около секунды
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (rateLimiter.size() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, rateLimiter.size());
+    }
+
+    private static MockHttpServletRequest request(int user) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/" + user);
+        request.addHeader("X-Sharer-User-Id", user);
+        return request;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.RequestBookingCreateDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
@@ -26,6 +27,8 @@ public class BookingController {
 
     private static final String HEADER_REQUEST_ID = "X-Sharer-User-Id";
 
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
     @PostMapping()
     public ResponseEntity<BookingCreateDto> createBooking(@RequestHeader(HEADER_REQUEST_ID) Long userId, @RequestBody RequestBookingCreateDto bookingDto) {
         log.info("Создаем заявку для бронирования вещи: {}.", bookingDto);
@@ -48,15 +51,29 @@ public class BookingController {
 
     @GetMapping()
     public ResponseEntity<List<BookingCreateDto>> getAllBookingsToUser(@RequestHeader(HEADER_REQUEST_ID) Long userId,
-                                                                       @RequestParam(required = false, defaultValue = "ALL") String state) {
+                                                                       @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                                       @RequestParam(defaultValue = "0") int from,
+                                                                       @RequestParam(defaultValue = "10") int size,
+                                                                       @RequestParam(required = false) String cursor) {
         log.info("Получение списка всех бронирований текущего пользователя.");
-        return ResponseEntity.ok(bookingService.getAllBookingsToUser(userId, state));
+        return toResponse(bookingService.getAllBookingsToUser(userId, state, from, size, cursor));
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingCreateDto>> getAllItemBookingToUser(@RequestHeader(HEADER_REQUEST_ID) Long userId,
-                                                                          @RequestParam(required = false, defaultValue = "ALL") String state) {
+                                                                          @RequestParam(required = false, defaultValue = "ALL") String state,
+                                                                          @RequestParam(defaultValue = "0") int from,
+                                                                          @RequestParam(defaultValue = "10") int size,
+                                                                          @RequestParam(required = false) String cursor) {
         log.info("Получение списка бронирований для всех вещей текущего пользователя.");
-        return ResponseEntity.ok(bookingService.getAllItemBookingToUser(userId, state));
+        return toResponse(bookingService.getAllItemBookingToUser(userId, state, from, size, cursor));
+    }
+
+    private static ResponseEntity<List<BookingCreateDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(HEADER_NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
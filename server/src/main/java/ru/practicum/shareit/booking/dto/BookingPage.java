@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Страница списка бронирований и курсор для запроса следующей страницы.
+ * Курсор равен null, если страница последняя.
+ */
+@Data
+@AllArgsConstructor
+public class BookingPage {
+
+    private List<BookingCreateDto> bookings;
+
+    private String nextCursor;
+
+}
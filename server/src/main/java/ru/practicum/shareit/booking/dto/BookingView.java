@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Плоская проекция бронирования с вещью и автором, читается одним запросом без загрузки сущностей.
+ */
+@Data
+@AllArgsConstructor
+public class BookingView {
+
+    private Long id;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private BookingStatus status;
+
+    private Long itemId;
+
+    private String itemName;
+
+    private Long ownerId;
+
+    private Long bookerId;
+
+    private String bookerName;
+
+}
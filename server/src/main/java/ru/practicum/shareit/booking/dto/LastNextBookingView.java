@@ -0,0 +1,27 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее или ближайшее следующее одобренное бронирование вещи из пакетного запроса по списку вещей.
+ */
+public interface LastNextBookingView {
+
+    String LAST = "LAST";
+
+    String NEXT = "NEXT";
+
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    /**
+     * LAST или NEXT.
+     */
+    String getKind();
+
+}
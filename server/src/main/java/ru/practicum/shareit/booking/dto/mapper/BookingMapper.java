@@ -1,8 +1,10 @@
 package ru.practicum.shareit.booking.dto.mapper;
 
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.dto.RequestBookingCreateDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRecord;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -31,7 +33,7 @@ public final class BookingMapper {
         return createdBooking;
     }
 
-    public static BookingCreateDto toBookingCreateDto(Booking booking) {
+    public static BookingCreateDto toBookingCreateDto(BookingRecord booking) {
         if (booking == null) {
             throw new IllegalArgumentException("Бронирование не найдено");
         }
@@ -63,7 +65,27 @@ public final class BookingMapper {
         return bookingCreateDto;
     }
 
-    public static List<BookingCreateDto> toListBookingDto(List<Booking> booking) {
+    public static BookingCreateDto toBookingCreateDto(BookingView booking) {
+        BookingCreateDto bookingCreateDto = new BookingCreateDto();
+        bookingCreateDto.setId(booking.getId());
+        bookingCreateDto.setStart(booking.getStart());
+        bookingCreateDto.setEnd(booking.getEnd());
+        bookingCreateDto.setStatus(booking.getStatus());
+
+        UserDto userDto = new UserDto();
+        userDto.setId(booking.getBookerId());
+        userDto.setName(booking.getBookerName());
+        bookingCreateDto.setBooker(userDto);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setId(booking.getItemId());
+        itemDto.setName(booking.getItemName());
+        bookingCreateDto.setItem(itemDto);
+
+        return bookingCreateDto;
+    }
+
+    public static List<BookingCreateDto> toListBookingDto(List<? extends BookingRecord> booking) {
         if (booking == null) {
             return Collections.emptyList();
         }
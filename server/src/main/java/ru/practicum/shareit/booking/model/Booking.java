@@ -14,7 +14,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "BOOKINGS")
 @Data
-public class Booking {
+public class Booking implements BookingRecord {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -34,7 +34,22 @@ public class Booking {
     @JoinColumn(name = "booker_id")
     private User booker;
 
+    /**
+     * Владелец вещи на момент бронирования, копия items.user_id для выборок владельца без соединения с ITEMS.
+     * Заполняется при создании; при смене владельца вещи БД обновляет колонку сама
+     * по внешнему ключу (item_id, owner_id) с ON UPDATE CASCADE.
+     */
+    @Column(name = "owner_id", updatable = false)
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
+    @PrePersist
+    void fillOwner() {
+        if (ownerId == null && item != null && item.getUser() != null) {
+            ownerId = item.getUser().getId();
+        }
+    }
+
 }
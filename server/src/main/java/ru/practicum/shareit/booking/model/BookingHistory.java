@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование из представления BOOKINGS_HISTORY: оперативная таблица BOOKINGS вместе с архивом BOOKINGS_ARCHIVE.
+ * Только для чтения истории; создаются и меняются бронирования через Booking.
+ */
+@Entity
+@Immutable
+@Table(name = "BOOKINGS_HISTORY")
+@Data
+public class BookingHistory implements BookingRecord {
+
+    @Id
+    private Long id;
+
+    @Column(name = "start_date")
+    private LocalDateTime start;
+
+    @Column(name = "end_date")
+    private LocalDateTime end;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "booker_id")
+    private User booker;
+
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.model;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Бронирование в том виде, в каком его читают мапперы и курсор: из оперативной таблицы (Booking)
+ * или из истории вместе с архивом (BookingHistory).
+ */
+public interface BookingRecord {
+
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+
+    Item getItem();
+
+    User getBooker();
+
+    BookingStatus getStatus();
+}
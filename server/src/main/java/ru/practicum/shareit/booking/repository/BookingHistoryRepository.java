@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import ru.practicum.shareit.booking.model.BookingHistory;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Запросы, которым нужна вся история бронирований, включая перенесенные в архив: списки ALL, PAST и REJECTED,
+ * чтение по id и прошедшие бронирования вещи. Текущие и будущие бронирования читаются из BookingRepository.
+ */
+public interface BookingHistoryRepository extends Repository<BookingHistory, Long> {
+
+    Optional<BookingHistory> findById(Long id);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<BookingHistory> findByBooker_Id(Long bookerId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<BookingHistory> findByBooker_IdAndStatus(Long bookerId, BookingStatus status,
+                                                    ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<BookingHistory> findByBooker_IdAndEndBefore(Long bookerId, LocalDateTime end,
+                                                       ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<BookingHistory> findByOwnerId(Long ownerId, ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<BookingHistory> findByOwnerIdAndStatus(Long ownerId, BookingStatus status,
+                                                  ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<BookingHistory> findByOwnerIdAndEndBefore(Long ownerId, LocalDateTime end,
+                                                     ScrollPosition position, Sort sort, Limit limit);
+
+    boolean existsByBooker_IdAndItem_IdAndStatusAndEndBefore(Long bookerId, Long itemId, BookingStatus status,
+                                                             LocalDateTime end);
+
+    @Query("SELECT b FROM BookingHistory as b " +
+            "where b.item.id = :itemId " +
+            "AND b.start < :now " +
+            "AND b.status = 'APPROVED' " +
+            "ORDER BY b.start DESC " +
+            "LIMIT 1")
+    BookingHistory findLastBooking(Long itemId, LocalDateTime now);
+}
@@ -1,59 +1,121 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.dto.LastNextBookingView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByBooker_Id(Long id, Sort sort);
-
-    List<Booking> findByBooker_IdAndStatus(Long userId, BookingStatus status, Sort sort);
-
-    List<Booking> findByBooker_IdAndEndBefore(Long userId, LocalDateTime end, Sort sort);
-
-    List<Booking> findByBooker_IdAndStartAfter(Long userId, LocalDateTime end, Sort sort);
-
-    @Query("SELECT b FROM Booking as b " +
-            "WHERE b.booker.id = :userId AND :now BETWEEN b.start AND b.end " +
-            "ORDER BY b.start DESC")
-    List<Booking> findCurrentByBooker(Long userId, LocalDateTime now);
-
-    List<Booking> findByItem_User_Id(Long userId, Sort sort);
-
-    List<Booking> findByItem_User_IdAndStatus(Long itemId, BookingStatus status, Sort sort);
-
-    List<Booking> findByItem_User_IdAndEndBefore(Long userId, LocalDateTime end, Sort sort);
-
-    List<Booking> findByItem_User_IdAndStartAfter(Long userId, LocalDateTime start, Sort sort);
-
-    @Query("SELECT b FROM Booking as b " +
-            "where b.item.user.id = :userId AND :now BETWEEN b.start AND b.end " +
-            "ORDER BY b.start DESC")
-    List<Booking> findByItemUser(Long userId, LocalDateTime now);
-
-    List<Booking> findByBookerIdAndItemIdAndStatusAndEndBefore(
-            Long bookerId,
-            Long itemId,
-            BookingStatus status,
-            LocalDateTime end
-    );
-
-    @Query("SELECT b FROM Booking as b " +
-            "where b.item.id = :itemId " +
-            "AND b.start < :now " +
-            "AND b.status = 'APPROVED' " +
-            "ORDER BY b.start DESC " +
-            "LIMIT 1")
-    Booking findLastBooking(Long itemId, LocalDateTime now);
+    /*
+     * Списочные методы подтягивают item и booker одним JOIN: маппер обращается к их именам,
+     * и без графа каждая строка страницы давала бы два дополнительных SELECT.
+     * Бронирования владельца фильтруются по bookings.owner_id, без соединения с ITEMS.
+     * Здесь только оперативная таблица; ALL, PAST и REJECTED с архивом читаются через BookingHistoryRepository.
+     */
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBooker_IdAndStatus(Long bookerId, BookingStatus status,
+                                             ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBooker_IdAndStartAfter(Long bookerId, LocalDateTime start,
+                                                 ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByBooker_IdAndStartLessThanEqualAndEndGreaterThanEqual(Long bookerId,
+                                                                               LocalDateTime start,
+                                                                               LocalDateTime end,
+                                                                               ScrollPosition position,
+                                                                               Sort sort,
+                                                                               Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByOwnerIdAndStatus(Long ownerId, BookingStatus status,
+                                           ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByOwnerIdAndStartAfter(Long ownerId, LocalDateTime start,
+                                               ScrollPosition position, Sort sort, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Window<Booking> findByOwnerIdAndStartLessThanEqualAndEndGreaterThanEqual(Long ownerId,
+                                                                             LocalDateTime start,
+                                                                             LocalDateTime end,
+                                                                             ScrollPosition position,
+                                                                             Sort sort,
+                                                                             Limit limit);
+
+    List<Booking> findByStatusInAndEndAfter(Collection<BookingStatus> statuses, LocalDateTime end);
+
+    List<Booking> findByItem_IdAndStatusInAndEndAfter(Long itemId, Collection<BookingStatus> statuses, LocalDateTime end);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking as b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status IN :statuses " +
+            "AND b.start < :end " +
+            "AND b.end > :start")
+    boolean existsOverlapping(Long itemId, LocalDateTime start, LocalDateTime end, Collection<BookingStatus> statuses);
+
+    /**
+     * Переводит бронирование из WAITING в новый статус, только если вещь принадлежит ownerId.
+     *
+     * @return число измененных строк: 0, если бронирования нет, оно уже не WAITING или пользователь не владелец
+     */
+    @Modifying
+    @Query("UPDATE Booking as b SET b.status = :status " +
+            "WHERE b.id = :bookingId " +
+            "AND b.status = 'WAITING' " +
+            "AND b.ownerId = :ownerId")
+    int updateWaitingStatus(Long bookingId, Long ownerId, BookingStatus status);
+
+    @Query("SELECT new ru.practicum.shareit.booking.dto.BookingView(" +
+            "b.id, b.start, b.end, b.status, i.id, i.name, i.user.id, u.id, u.name) " +
+            "FROM Booking as b JOIN b.item as i JOIN b.booker as u " +
+            "WHERE b.id = :bookingId")
+    Optional<BookingView> findViewById(Long bookingId);
+
+    /**
+     * Последнее и следующее одобренные бронирования сразу для всех вещей из списка, по одной строке каждого вида
+     * на вещь. Порядок внутри вещи тот же, что в findLastBooking и findNextBooking; последнее ищется и в архиве.
+     * Ветки по BOOKINGS и BOOKINGS_ARCHIVE выписаны явно: список IN не везде проталкивается внутрь BOOKINGS_HISTORY.
+     */
+    @Query(value = "SELECT ranked.id AS id, ranked.item_id AS itemId, ranked.start_date AS startDate, " +
+            "ranked.end_date AS endDate, ranked.kind AS kind " +
+            "FROM (" +
+            "SELECT b.id, b.item_id, b.start_date, b.end_date, 'LAST' AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.start_date DESC) AS rn " +
+            "FROM (" +
+            "SELECT h.id, h.item_id, h.start_date, h.end_date FROM bookings AS h " +
+            "WHERE h.item_id IN (:itemIds) AND h.status = 'APPROVED' AND h.start_date < :now " +
+            "UNION ALL " +
+            "SELECT a.id, a.item_id, a.start_date, a.end_date FROM bookings_archive AS a " +
+            "WHERE a.item_id IN (:itemIds) AND a.status = 'APPROVED' AND a.start_date < :now" +
+            ") AS b " +
+            "UNION ALL " +
+            "SELECT b.id, b.item_id, b.start_date, b.end_date, 'NEXT' AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id ORDER BY b.end_date ASC) AS rn " +
+            "FROM bookings AS b " +
+            "WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.start_date > :now" +
+            ") AS ranked " +
+            "WHERE ranked.rn = 1", nativeQuery = true)
+    List<LastNextBookingView> findLastAndNextBookings(Collection<Long> itemIds, LocalDateTime now);
 
     @Query("SELECT b from Booking as b " +
             "where b.item.id = :itemId " +
@@ -63,4 +125,20 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "LIMIT 1")
     Booking findNextBooking(Long itemId, LocalDateTime now);
 
+    /**
+     * id бронирований в конечном статусе, закончившихся раньше threshold, начиная с самых старых: очередная пачка
+     * для архива. Ожидающие подтверждения остаются в BOOKINGS: подтверждение, чтение по id и список WAITING
+     * смотрят только оперативную таблицу.
+     */
+    @Query(value = "SELECT b.id FROM bookings AS b " +
+            "WHERE b.end_date < :threshold AND b.status IN ('APPROVED', 'REJECTED', 'CANCELED') " +
+            "ORDER BY b.end_date LIMIT :limit", nativeQuery = true)
+    List<Long> findFinishedIds(LocalDateTime threshold, int limit);
+
+    @Modifying
+    @Query(value = "INSERT INTO bookings_archive (id, start_date, end_date, item_id, owner_id, booker_id, status) " +
+            "SELECT b.id, b.start_date, b.end_date, b.item_id, b.owner_id, b.booker_id, b.status " +
+            "FROM bookings AS b WHERE b.id IN (:ids)", nativeQuery = true)
+    int copyToArchive(Collection<Long> ids);
+
 }
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Переносит бронирования, закончившиеся раньше горизонта, из BOOKINGS в BOOKINGS_ARCHIVE. Переносятся только
+ * бронирования в конечном статусе, неподтвержденные остаются в BOOKINGS, где их ищет подтверждение.
+ * Каждая пачка копируется и удаляется в своей транзакции, поэтому в истории бронирование видно ровно один раз.
+ * Если архивируют два узла одновременно, вторая копия той же пачки упадет на первичном ключе архива и откатится.
+ * Проигравший узел не считает это ошибкой: остальное переносит другой узел, а сам он попробует в следующий раз.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.bookings.archive.enabled", havingValue = "true")
+public class BookingArchiver {
+
+    private final BookingRepository bookingRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration horizon;
+
+    private final int batchSize;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.bookings.archive.horizon:365d}") Duration horizon,
+                           @Value("${shareit.bookings.archive.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${shareit.bookings.archive.interval:PT1H}",
+            fixedDelayString = "${shareit.bookings.archive.interval:PT1H}")
+    public void archive() {
+        archiveFinishedBefore(LocalDateTime.now().minus(horizon));
+    }
+
+    /**
+     * @return число перенесенных бронирований
+     */
+    int archiveFinishedBefore(LocalDateTime threshold) {
+        int total = 0;
+        int moved;
+        do {
+            try {
+                moved = transactionTemplate.execute(status -> moveBatch(threshold));
+            } catch (DataIntegrityViolationException e) {
+                log.info("Пачку бронирований уже переносит в архив другой узел, перенос отложен до следующего запуска");
+                log.debug("Конфликт при переносе в архив", e);
+                break;
+            }
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("В архив перенесено {} бронирований, закончившихся до {}", total, threshold);
+        }
+        return total;
+    }
+
+    private int moveBatch(LocalDateTime threshold) {
+        List<Long> ids = bookingRepository.findFinishedIds(threshold, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        bookingRepository.copyToArchive(ids);
+        bookingRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+}
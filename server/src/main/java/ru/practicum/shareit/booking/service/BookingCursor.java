@@ -0,0 +1,41 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import ru.practicum.shareit.booking.model.BookingRecord;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Непрозрачный курсор для постраничного чтения бронирований.
+ * Хранит ключ (start, id) последнего отданного бронирования в порядке (start DESC, id DESC).
+ */
+final class BookingCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private BookingCursor() {
+    }
+
+    static String encode(BookingRecord booking) {
+        String key = booking.getStart() + SEPARATOR + booking.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static KeysetScrollPosition decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf(SEPARATOR);
+            LocalDateTime start = LocalDateTime.parse(key.substring(0, separator));
+            Long id = Long.valueOf(key.substring(separator + 1));
+            return ScrollPosition.forward(Map.of("start", start, "id", id));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Передан некорректный курсор!");
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Индекс активных (WAITING и APPROVED) бронирований по вещам для проверки пересечения дат без обращения к БД.
+ * Интервалы одной вещи хранятся отсортированными по началу. Так как новые бронирования не могут
+ * пересекаться с активными, концы интервалов тоже упорядочены, и проверка сводится к одному поиску
+ * ближайшего интервала, начинающегося раньше конца запрошенного.
+ * Индекс локален для узла, поэтому свободный по индексу интервал перепроверяется в БД.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingIntervalIndex {
+
+    static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, NavigableSet<Slot>> slotsByItem = new ConcurrentHashMap<>();
+
+    /**
+     * В транзакции на запись, чтобы читать с основной БД: дальше индекс ведется по коммитам этого узла
+     * и не должен начинаться с данных отставшей реплики.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void warmUp() {
+        slotsByItem.clear();
+        List<Booking> bookings = bookingRepository.findByStatusInAndEndAfter(ACTIVE_STATUSES, LocalDateTime.now());
+        bookings.forEach(this::put);
+        log.info("Индекс бронирований прогрет: {} бронирований по {} вещам", bookings.size(), slotsByItem.size());
+    }
+
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        NavigableSet<Slot> slots = slotsByItem.get(itemId);
+        if (slots == null) {
+            return false;
+        }
+        Slot candidate = slots.lower(new Slot(Long.MIN_VALUE, end, end));
+        return candidate != null && candidate.end().isAfter(start);
+    }
+
+    /**
+     * Перечитывает интервалы вещи из БД, например, когда бронирование создал другой узел.
+     */
+    public void reload(Long itemId) {
+        slotsByItem.remove(itemId);
+        bookingRepository.findByItem_IdAndStatusInAndEndAfter(itemId, ACTIVE_STATUSES, LocalDateTime.now())
+                .forEach(this::put);
+    }
+
+    public void add(Booking booking) {
+        TransactionCallbacks.afterCommit(() -> put(booking));
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        TransactionCallbacks.afterCommit(() -> {
+            NavigableSet<Slot> slots = slotsByItem.get(itemId);
+            if (slots != null) {
+                slots.removeIf(slot -> slot.bookingId() == bookingId);
+            }
+        });
+    }
+
+    private void put(Booking booking) {
+        slotsByItem.computeIfAbsent(booking.getItem().getId(), id -> new ConcurrentSkipListSet<>(Slot.ORDER))
+                .add(new Slot(booking.getId(), booking.getStart(), booking.getEnd()));
+    }
+
+    record Slot(long bookingId, LocalDateTime start, LocalDateTime end) {
+
+        static final Comparator<Slot> ORDER = Comparator.comparing(Slot::start).thenComparingLong(Slot::bookingId);
+
+    }
+}
@@ -1,10 +1,9 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.RequestBookingCreateDto;
 
-import java.util.List;
-
 public interface BookingService {
 
     BookingCreateDto createBooking(RequestBookingCreateDto bookingDto, Long userId);
@@ -13,7 +12,7 @@ public interface BookingService {
 
     BookingCreateDto getBooking(Long userID, Long bookingId);
 
-    List<BookingCreateDto> getAllBookingsToUser(Long userId, String state);
+    BookingPage getAllBookingsToUser(Long userId, String state, int from, int size, String cursor);
 
-    List<BookingCreateDto> getAllItemBookingToUser(Long userId, String state);
+    BookingPage getAllItemBookingToUser(Long userId, String state, int from, int size, String cursor);
 }
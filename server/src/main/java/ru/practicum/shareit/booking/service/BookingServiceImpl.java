@@ -3,14 +3,21 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.dto.RequestBookingCreateDto;
 import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRecord;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -21,15 +28,20 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
 
+    private static final Sort PAGE_SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+
     private final BookingRepository bookingRepository;
+    private final BookingHistoryRepository bookingHistoryRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
 
     @Override
     @Transactional
@@ -55,37 +67,52 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Предмет недоступен для бронирования");
         }
 
-        return BookingMapper.toBookingCreateDto(bookingRepository.save(BookingMapper.toBooking(bookingDto, user, item)));
+        if (bookingDto.getStart() != null && bookingDto.getEnd() != null) {
+            checkNoOverlap(item.getId(), bookingDto.getStart(), bookingDto.getEnd());
+        }
+
+        Booking booking = bookingRepository.save(BookingMapper.toBooking(bookingDto, user, item));
+        bookingIntervalIndex.add(booking);
+        return BookingMapper.toBookingCreateDto(booking);
     }
 
+    /**
+     * Статус меняется одним условным UPDATE без предварительного чтения, поэтому из двух
+     * одновременных подтверждений пройдет только одно. Причину отказа выясняем, только если UPDATE
+     * не изменил ни одной строки.
+     */
     @Override
     @Transactional
     public BookingCreateDto updateBookingStatus(Long userId, Long bookingId, boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int updated = bookingRepository.updateWaitingStatus(bookingId, userId, status);
+        BookingView booking = bookingRepository.findViewById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Заявка на бронирование не найдена"));
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
-            throw new ValidationException("Статус можно изменить только для заявок в статусе WAITING");
-        }
-        boolean ownerItem = booking.getItem().getUser().getId().equals(userId);
-        if (ownerItem) {
-            if (approved) {
-                log.info("Перевели статус заявки бронирования с ID: {} на одобрено", bookingId);
-                booking.setStatus(BookingStatus.APPROVED);
-            } else {
-                log.info("Перевели статус заявки бронирования с ID: {} на отклоненный", bookingId);
-                booking.setStatus(BookingStatus.REJECTED);
+        if (updated == 0) {
+            if (booking.getStatus() != BookingStatus.WAITING) {
+                throw new ValidationException("Статус можно изменить только для заявок в статусе WAITING");
             }
-        } else {
             log.error("Пользователь ID: {} не является владельцем предмета!", userId);
             throw new ValidationException("Пользователь не является владельцем предмета!");
         }
-        return BookingMapper.toBookingCreateDto(bookingRepository.save(booking));
+        if (approved) {
+            log.info("Перевели статус заявки бронирования с ID: {} на одобрено", bookingId);
+        } else {
+            log.info("Перевели статус заявки бронирования с ID: {} на отклоненный", bookingId);
+            bookingIntervalIndex.remove(booking.getItemId(), bookingId);
+        }
+        return BookingMapper.toBookingCreateDto(booking);
     }
 
+    /**
+     * Бронирование ищется сначала в оперативной таблице, затем в истории, куда попадают перенесенные в архив.
+     */
     @Override
     @Transactional(readOnly = true)
     public BookingCreateDto getBooking(Long userID, Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        BookingRecord booking = bookingRepository.findById(bookingId)
+                .<BookingRecord>map(Function.identity())
+                .or(() -> bookingHistoryRepository.findById(bookingId))
                 .orElseThrow(() -> new NotFoundException("Заявка на бронирование не найдена!"));
         boolean ownerItemOrBid = ((booking.getItem().getUser().getId().equals(userID) || (booking.getBooker().getId().equals(userID))));
         if (ownerItemOrBid) {
@@ -97,48 +124,93 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingCreateDto> getAllBookingsToUser(Long userId, String state) {
+    public BookingPage getAllBookingsToUser(Long userId, String state, int from, int size, String cursor) {
         userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        return switch (state) {
-            case "ALL" -> BookingMapper.toListBookingDto(bookingRepository.findByBooker_Id(userId, sort));
+        ScrollPosition position = toScrollPosition(from, size, cursor);
+        Limit limit = Limit.of(size);
+        LocalDateTime now = LocalDateTime.now();
+        Window<? extends BookingRecord> bookings = switch (state) {
+            case "ALL" -> bookingHistoryRepository.findByBooker_Id(userId, position, PAGE_SORT, limit);
             case "WAITING" ->
-                    BookingMapper.toListBookingDto(bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.WAITING, sort));
+                    bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.WAITING, position, PAGE_SORT, limit);
             case "REJECTED" ->
-                    BookingMapper.toListBookingDto(bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.REJECTED, sort));
+                    bookingHistoryRepository.findByBooker_IdAndStatus(userId, BookingStatus.REJECTED, position, PAGE_SORT,
+                            limit);
             case "CURRENT" ->
-                    BookingMapper.toListBookingDto(bookingRepository.findCurrentByBooker(userId, LocalDateTime.now()));
-            case "PAST" ->
-                    BookingMapper.toListBookingDto(bookingRepository.findByBooker_IdAndEndBefore(userId, LocalDateTime.now(), sort));
-            case "FUTURE" ->
-                    BookingMapper.toListBookingDto(bookingRepository.findByBooker_IdAndStartAfter(userId, LocalDateTime.now(), sort));
+                    bookingRepository.findByBooker_IdAndStartLessThanEqualAndEndGreaterThanEqual(userId, now, now,
+                            position, PAGE_SORT, limit);
+            case "PAST" -> bookingHistoryRepository.findByBooker_IdAndEndBefore(userId, now, position, PAGE_SORT, limit);
+            case "FUTURE" -> bookingRepository.findByBooker_IdAndStartAfter(userId, now, position, PAGE_SORT, limit);
             default -> throw new ValidationException("Передан не обрабатываемый тип state!");
         };
+        return toBookingPage(bookings);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingCreateDto> getAllItemBookingToUser(Long userId, String state) {
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-        if (!itemRepository.findAllByUser_Id(userId).isEmpty()) {
-            return switch (state) {
-                case "ALL" -> BookingMapper.toListBookingDto(bookingRepository.findByItem_User_Id(userId, sort));
-                case "WAITING" ->
-                        BookingMapper.toListBookingDto(bookingRepository.findByItem_User_IdAndStatus(userId, BookingStatus.WAITING, sort));
-                case "REJECTED" ->
-                        BookingMapper.toListBookingDto(bookingRepository.findByItem_User_IdAndStatus(userId, BookingStatus.REJECTED, sort));
-                case "CURRENT" ->
-                        BookingMapper.toListBookingDto(bookingRepository.findByItemUser(userId, LocalDateTime.now()));
-                case "PAST" ->
-                        BookingMapper.toListBookingDto(bookingRepository.findByItem_User_IdAndEndBefore(userId, LocalDateTime.now(), sort));
-                case "FUTURE" ->
-                        BookingMapper.toListBookingDto(bookingRepository.findByItem_User_IdAndStartAfter(userId, LocalDateTime.now(), sort));
-                default -> throw new ValidationException("Передан не обрабатываемый тип state!");
-            };
-        } else {
+    public BookingPage getAllItemBookingToUser(Long userId, String state, int from, int size, String cursor) {
+        if (!itemRepository.existsByUser_Id(userId)) {
             log.error("У пользователя ID: {} должен быть хоть 1 предмет", userId);
             throw new NotFoundException("У пользователя должен быть хоть 1 предмет");
         }
+        ScrollPosition position = toScrollPosition(from, size, cursor);
+        Limit limit = Limit.of(size);
+        LocalDateTime now = LocalDateTime.now();
+        Window<? extends BookingRecord> bookings = switch (state) {
+            case "ALL" -> bookingHistoryRepository.findByOwnerId(userId, position, PAGE_SORT, limit);
+            case "WAITING" ->
+                    bookingRepository.findByOwnerIdAndStatus(userId, BookingStatus.WAITING, position, PAGE_SORT, limit);
+            case "REJECTED" ->
+                    bookingHistoryRepository.findByOwnerIdAndStatus(userId, BookingStatus.REJECTED, position, PAGE_SORT,
+                            limit);
+            case "CURRENT" ->
+                    bookingRepository.findByOwnerIdAndStartLessThanEqualAndEndGreaterThanEqual(userId, now, now,
+                            position, PAGE_SORT, limit);
+            case "PAST" -> bookingHistoryRepository.findByOwnerIdAndEndBefore(userId, now, position, PAGE_SORT, limit);
+            case "FUTURE" -> bookingRepository.findByOwnerIdAndStartAfter(userId, now, position, PAGE_SORT, limit);
+            default -> throw new ValidationException("Передан не обрабатываемый тип state!");
+        };
+        return toBookingPage(bookings);
+    }
+
+    /**
+     * Пересечение сначала ищется в индексе узла, чтобы отказать без обращений к БД.
+     * Если по индексу интервал свободен, строка вещи блокируется и пересечение перепроверяется в БД:
+     * так параллельные бронирования одной вещи с разных узлов не проходят одновременно.
+     */
+    private void checkNoOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (bookingIntervalIndex.overlaps(itemId, start, end)) {
+            log.error("Предмет {} уже забронирован на период {} - {}", itemId, start, end);
+            throw new ValidationException("Предмет уже забронирован на указанные даты");
+        }
+        itemRepository.lockById(itemId);
+        if (bookingRepository.existsOverlapping(itemId, start, end, BookingIntervalIndex.ACTIVE_STATUSES)) {
+            log.error("Предмет {} уже забронирован на период {} - {}", itemId, start, end);
+            bookingIntervalIndex.reload(itemId);
+            throw new ValidationException("Предмет уже забронирован на указанные даты");
+        }
+    }
+
+    /**
+     * Курсор имеет приоритет над from: с курсором выборка продолжается по ключу (start, id),
+     * без него - по смещению from, как и раньше.
+     */
+    private ScrollPosition toScrollPosition(int from, int size, String cursor) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Параметры from и size заданы некорректно!");
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            return BookingCursor.decode(cursor);
+        }
+        return from == 0 ? ScrollPosition.offset() : ScrollPosition.offset(from - 1);
+    }
+
+    private BookingPage toBookingPage(Window<? extends BookingRecord> bookings) {
+        List<? extends BookingRecord> content = bookings.getContent();
+        String nextCursor = bookings.hasNext() && !content.isEmpty()
+                ? BookingCursor.encode(content.get(content.size() - 1))
+                : null;
+        return new BookingPage(BookingMapper.toListBookingDto(content), nextCursor);
     }
 
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Предел одновременных запросов по размеру пула соединений (shareit.db-admission.*). С виртуальными
+ * потоками (spring.threads.virtual.enabled=true) пула потоков Tomcat больше нет, и без этого предела
+ * тысячи запросов разом встают в очередь Hikari. Фильтр стоит первым, чтобы отклоненный запрос
+ * стоил как можно меньше.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.db-admission.enabled", havingValue = "true")
+public class ConnectionAdmissionConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    public FilterRegistrationBean<ConnectionAdmissionFilter> connectionAdmissionFilter(
+            DataSource dataSource,
+            @Value("${shareit.db-admission.max-concurrent:0}") int maxConcurrent,
+            @Value("${shareit.db-admission.max-wait:30s}") Duration maxWait,
+            MeterRegistry meterRegistry) throws SQLException {
+        FilterRegistrationBean<ConnectionAdmissionFilter> registration =
+                new FilterRegistrationBean<>(filter(dataSource, maxConcurrent, maxWait, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * С репликами общий предел не защищает основную БД: записи, чтения в окне ReadYourWrites и все чтения
+     * при недоступных репликах идут в ее пул, поэтому такие запросы ограничены еще и его размером.
+     */
+    static ConnectionAdmissionFilter filter(DataSource dataSource, int maxConcurrent, Duration maxWait,
+                                            MeterRegistry meterRegistry) throws SQLException {
+        int limit = maxConcurrent > 0 ? maxConcurrent : poolSize(dataSource);
+        if (!dataSource.isWrapperFor(ReplicaDataSource.class)) {
+            log.info("Одновременно обрабатывается не больше {} запросов, ожидание до {}", limit, maxWait);
+            return new ConnectionAdmissionFilter(limit, maxWait, meterRegistry);
+        }
+        ReplicaDataSource replicas = dataSource.unwrap(ReplicaDataSource.class);
+        int primaryLimit = dataSource.isWrapperFor(HikariConfigMXBean.class)
+                ? Math.min(limit, maximumPoolSize(dataSource.unwrap(HikariConfigMXBean.class)))
+                : limit;
+        log.info("Одновременно обрабатывается не больше {} запросов, из них на основной БД не больше {}, "
+                + "ожидание до {}", limit, primaryLimit, maxWait);
+        return new ConnectionAdmissionFilter(limit, primaryLimit, request -> replicas.isPrimaryBound(
+                ReadYourWritesFilter.userId(request), ReadYourWritesFilter.isWrite(request)), maxWait, meterRegistry);
+    }
+
+    /**
+     * Соединения, которыми запросы могут пользоваться одновременно: пул основной БД, а с репликами
+     * (shareit.replicas.enabled=true) - еще и пулы всех реплик, ведь чтения уходят на них.
+     */
+    static int poolSize(DataSource dataSource) throws SQLException {
+        if (!dataSource.isWrapperFor(HikariConfigMXBean.class)) {
+            throw new IllegalStateException("Размер пула известен только для Hikari, "
+                    + "задайте shareit.db-admission.max-concurrent");
+        }
+        int primary = maximumPoolSize(dataSource.unwrap(HikariConfigMXBean.class));
+        if (!dataSource.isWrapperFor(ReplicaDataSource.class)) {
+            return primary;
+        }
+        return primary + dataSource.unwrap(ReplicaDataSource.class).getPools().stream()
+                .mapToInt(ConnectionAdmissionConfig::maximumPoolSize)
+                .sum();
+    }
+
+    /**
+     * До старта пула Hikari не заданный maximumPoolSize равен -1, при старте он становится 10.
+     */
+    private static int maximumPoolSize(HikariConfigMXBean pool) {
+        int maximumPoolSize = pool.getMaximumPoolSize();
+        return maximumPoolSize > 0 ? maximumPoolSize : DEFAULT_POOL_SIZE;
+    }
+}
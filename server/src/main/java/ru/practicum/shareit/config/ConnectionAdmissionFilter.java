@@ -0,0 +1,119 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Пропускает к контроллерам не больше maxConcurrent запросов одновременно. Почти каждый запрос ходит в БД:
+ * без реплик open-in-view держит взятое соединение до конца запроса, с репликами соединение отдается после
+ * каждой транзакции, но запрос все равно занимает его на большую часть обработки. Поэтому лишние запросы
+ * ждут здесь, в порядке поступления, а не в очереди Hikari, где по истечении connectionTimeout они падали
+ * бы с 500. С репликами maxConcurrent считается по всем пулам, а запросы, которые пойдут на основную БД
+ * (primaryBound), дополнительно ограничены ее пулом maxPrimary. Не дождавшись места за maxWait, запрос
+ * получает 503 с Retry-After. Метрики shareit.db.admission.waiting и shareit.db.admission.rejected.
+ */
+@Slf4j
+public class ConnectionAdmissionFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+
+    private final Semaphore primaryPermits;
+
+    private final Predicate<HttpServletRequest> primaryBound;
+
+    private final long maxWaitNanos;
+
+    private final Counter rejected;
+
+    public ConnectionAdmissionFilter(int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+        this(maxConcurrent, maxConcurrent, request -> false, maxWait, meterRegistry);
+    }
+
+    public ConnectionAdmissionFilter(int maxConcurrent, int maxPrimary, Predicate<HttpServletRequest> primaryBound,
+                                     Duration maxWait, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.primaryPermits = new Semaphore(maxPrimary, true);
+        this.primaryBound = primaryBound;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.rejected = Counter.builder("shareit.db.admission.rejected")
+                .description("Запросы, не дождавшиеся свободного соединения с БД")
+                .register(meterRegistry);
+        Gauge.builder("shareit.db.admission.waiting", this,
+                        filter -> filter.permits.getQueueLength() + filter.primaryPermits.getQueueLength())
+                .description("Запросы, ожидающие свободного соединения с БД")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean primary = primaryBound.test(request);
+        if (!acquire(primary)) {
+            rejected.increment();
+            log.debug("Нет свободного соединения с БД для {} {}", request.getMethod(), request.getRequestURI());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write("{\"message\":\"Сервер перегружен, повторите позже\"}");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+            if (primary) {
+                primaryPermits.release();
+            }
+        }
+    }
+
+    /**
+     * Место в пуле основной БД берется первым, чтобы ожидающие его запросы не держали места,
+     * нужные чтениям с реплик.
+     */
+    private boolean acquire(boolean primary) {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        if (primary && !tryAcquire(primaryPermits, maxWaitNanos)) {
+            return false;
+        }
+        if (tryAcquire(permits, deadline - System.nanoTime())) {
+            return true;
+        }
+        if (primary) {
+            primaryPermits.release();
+        }
+        return false;
+    }
+
+    private static boolean tryAcquire(Semaphore semaphore, long timeoutNanos) {
+        try {
+            return semaphore.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
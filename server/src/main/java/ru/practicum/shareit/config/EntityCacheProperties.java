@@ -0,0 +1,32 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Регионы кэша второго уровня Hibernate: имя региона из @Cache(region = ...) и его ограничения.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit.cache")
+public class EntityCacheProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+
+        /**
+         * Максимальное число сущностей в регионе, старые вытесняются по частоте использования.
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * Время жизни записи после загрузки или изменения.
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+}
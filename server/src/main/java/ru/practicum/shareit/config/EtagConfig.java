@@ -0,0 +1,23 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag для GET-ответов по вещам, бронированиям и запросам. ETag - хэш тела ответа: в карточку вещи
+ * входят бронирования и комментарии, поэтому версия одной сущности ответ не описывает.
+ * Если If-None-Match совпал, сервер отвечает 304 без тела, и гейтвей отдает сохраненную копию.
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items", "/items/*", "/bookings", "/bookings/*", "/requests", "/requests/*");
+        return registration;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Пользователи, недавно изменившие данные, и признак того, что текущий запрос должен читать
+ * с основной БД. Запрос на изменение и все чтения того же пользователя в течение окна идут на основную БД,
+ * поэтому пользователь видит свои записи, даже если реплика их еще не получила.
+ */
+public class ReadYourWrites {
+
+    private final ThreadLocal<Boolean> primaryOnly = new ThreadLocal<>();
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    public ReadYourWrites(Duration window, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void begin(Long userId, boolean write) {
+        if (write || isRecentWriter(userId)) {
+            primaryOnly.set(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Пользователь менял данные в течение окна, и его чтения идут на основную БД.
+     */
+    public boolean isRecentWriter(Long userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    public void end(Long userId, boolean write) {
+        primaryOnly.remove();
+        if (write && userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public boolean isPrimaryOnly() {
+        return primaryOnly.get() != null;
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Отмечает изменяющие запросы пользователя из X-Sharer-User-Id, чтобы его чтения в течение окна
+ * ReadYourWrites шли на основную БД. Запросы без заголовка на реплики не закрепляются.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final String HEADER_USER_ID = "X-Sharer-User-Id";
+
+    private static final Set<String> READ_METHODS =
+            Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Long userId = userId(request);
+        boolean write = isWrite(request);
+        readYourWrites.begin(userId, write);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            readYourWrites.end(userId, write);
+        }
+    }
+
+    static boolean isWrite(HttpServletRequest request) {
+        return !READ_METHODS.contains(request.getMethod());
+    }
+
+    static Long userId(HttpServletRequest request) {
+        String header = request.getHeader(HEADER_USER_ID);
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
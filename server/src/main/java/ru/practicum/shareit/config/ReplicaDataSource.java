@@ -0,0 +1,204 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Выбирает БД по текущей транзакции: readOnly читает с реплики, остальное идет на основную БД.
+ * Реплики выбираются по кругу, пропускаются недоступные и отставшие больше чем на maxLag по последней
+ * проверке. Если подходящей реплики нет или пользователь недавно сам что-то изменил (ReadYourWrites),
+ * соединение берется из основной БД. Признак readOnly известен только после начала транзакции,
+ * поэтому источник используется за LazyConnectionDataSourceProxy. Метрики shareit.replicas.available
+ * и shareit.replicas.fallback.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final DataSource primary;
+
+    private final ReadYourWrites readYourWrites;
+
+    private final List<Replica> replicas;
+
+    private final long maxLagMillis;
+
+    private final int checkTimeoutSeconds;
+
+    private final String lagQuery;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter fallback;
+
+    public ReplicaDataSource(DataSource primary, ReadYourWrites readYourWrites, ReplicaProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.maxLagMillis = properties.getMaxLag().toMillis();
+        this.checkTimeoutSeconds = (int) Math.max(1, properties.getConnectTimeout().toSeconds());
+        this.lagQuery = properties.getLagQuery();
+        this.replicas = IntStream.range(0, properties.getNodes().size())
+                .mapToObj(i -> new Replica(pool(i, properties.getNodes().get(i), properties)))
+                .toList();
+        this.fallback = Counter.builder("shareit.replicas.fallback")
+                .description("Чтения, отправленные на основную БД из-за отсутствия подходящей реплики")
+                .register(meterRegistry);
+        Gauge.builder("shareit.replicas.available", this, ReplicaDataSource::countAvailable)
+                .description("Реплики, доступные и не отставшие по последней проверке")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || readYourWrites.isPrimaryOnly()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.available = false;
+                log.warn("Реплика {} недоступна до следующей проверки: {}", replica.dataSource.getPoolName(),
+                        e.getMessage());
+            }
+        }
+        fallback.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) {
+        throw new UnsupportedOperationException("Реплики используют учетные данные из shareit.replicas.nodes");
+    }
+
+    /**
+     * Возьмет ли запрос соединение основной БД по текущему состоянию реплик: запись, чтение пользователя
+     * в окне ReadYourWrites или чтение, когда ни одна реплика не принимает чтений.
+     */
+    public boolean isPrimaryBound(Long userId, boolean write) {
+        return write || readYourWrites.isRecentWriter(userId) || countAvailable() == 0;
+    }
+
+    /**
+     * Пулы реплик, например для расчета предела одновременных запросов.
+     */
+    public List<HikariConfigMXBean> getPools() {
+        return replicas.stream().<HikariConfigMXBean>map(replica -> replica.dataSource).toList();
+    }
+
+    /**
+     * Снаружи источник выглядит как пул основной БД, к самому источнику можно добраться через unwrap.
+     */
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    /**
+     * Проверяет каждую реплику: соединение живо, отставание известно и не больше maxLag.
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${shareit.replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean available = check(replica);
+            if (available != replica.available) {
+                log.info("Реплика {} {}", replica.dataSource.getPoolName(),
+                        available ? "снова принимает чтения" : "исключена из чтений");
+            }
+            replica.available = available;
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private boolean check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            if (!connection.isValid(checkTimeoutSeconds)) {
+                return false;
+            }
+            if (lagQuery == null || lagQuery.isBlank()) {
+                return true;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(lagQuery)) {
+                if (!lag.next()) {
+                    log.debug("Реплика {} не сообщает отставание", replica.dataSource.getPoolName());
+                    return false;
+                }
+                double lagSeconds = lag.getDouble(1);
+                if (lag.wasNull()) {
+                    log.debug("Реплика {} не знает своего отставания", replica.dataSource.getPoolName());
+                    return false;
+                }
+                long lagMillis = Math.round(lagSeconds * 1000);
+                if (lagMillis > maxLagMillis) {
+                    log.debug("Реплика {} отстает на {} мс", replica.dataSource.getPoolName(), lagMillis);
+                    return false;
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            log.debug("Реплика {} не прошла проверку: {}", replica.dataSource.getPoolName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private int countAvailable() {
+        return (int) replicas.stream().filter(replica -> replica.available).count();
+    }
+
+    private static HikariDataSource pool(int index, ReplicaProperties.Node node, ReplicaProperties properties) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica-" + index);
+        config.setJdbcUrl(node.getUrl());
+        config.setUsername(node.getUsername());
+        config.setPassword(node.getPassword());
+        config.setMaximumPoolSize(properties.getPoolSize());
+        config.setConnectionTimeout(properties.getConnectTimeout().toMillis());
+        config.setReadOnly(true);
+        // Недоступная при старте реплика не мешает запуску, чтения идут на основную БД до первой удачной проверки
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+
+    private static class Replica {
+
+        private final HikariDataSource dataSource;
+
+        private volatile boolean available;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Реплики для транзакций только на чтение и условия, при которых чтение возвращается на основную БД.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit.replicas")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    /**
+     * Размер пула Hikari каждой реплики.
+     */
+    private int poolSize = 10;
+
+    /**
+     * Сколько ждать соединения с репликой и ответа на проверку, прежде чем считать ее недоступной.
+     */
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Реплика, отставшая больше чем на maxLag, не получает чтений до следующей проверки.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Запрос к реплике, возвращающий отставание в секундах. Пустой - отставание не проверяется,
+     * NULL - реплика считается непригодной. По умолчанию для потоковой репликации Postgres: без живого
+     * приемника WAL (pg_stat_wal_receiver не в состоянии streaming) реплика не знает, сколько не получила,
+     * и запрос возвращает NULL. Реплика, которая получает WAL и применила все полученное, не отстает,
+     * даже если на основной БД давно не было записей. Пользователю реплики нужна роль pg_monitor,
+     * иначе состояние приемника ему не видно.
+     */
+    private String lagQuery = "SELECT CASE "
+            + "WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming') THEN NULL "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    /**
+     * Пауза между проверками доступности и отставания реплик.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Сколько после своего изменения пользователь читает с основной БД, чтобы видеть собственные записи.
+     */
+    private Duration stickiness = Duration.ofSeconds(5);
+
+    /**
+     * Сколько пользователей с недавними изменениями помнит узел.
+     */
+    private long maxStickyUsers = 100_000;
+
+    @Data
+    public static class Node {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+    }
+}
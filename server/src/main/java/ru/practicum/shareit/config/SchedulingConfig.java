@@ -0,0 +1,14 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Планировщик нужен архиватору бронирований и проверке реплик.
+ */
+@Configuration
+@EnableScheduling
+@ConditionalOnExpression("${shareit.bookings.archive.enabled:false} or ${shareit.replicas.enabled:false}")
+public class SchedulingConfig {
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.catalina.connector.Connector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Дополнительный коннектор Tomcat на unix-сокете shareit.unix-socket.path, рядом с обычным портом.
+ * Гейтвей на том же хосте подключается к нему через shareit-server.url=unix:/path и не проходит
+ * через TCP-стек. Файл, оставшийся от прежнего запуска, удаляется перед стартом.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "shareit.unix-socket.path")
+public class UnixSocketConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> unixSocketConnectorCustomizer(
+            @Value("${shareit.unix-socket.path}") Path path,
+            @Value("${shareit.unix-socket.permissions:rw-rw----}") String permissions) {
+        return factory -> {
+            try {
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Не удалось подготовить unix-сокет " + path, e);
+            }
+            Connector connector = new Connector(TomcatServletWebServerFactory.DEFAULT_PROTOCOL);
+            connector.setProperty("unixDomainSocketPath", path.toString());
+            connector.setProperty("unixDomainSocketPathPermissions", permissions);
+            factory.addAdditionalTomcatConnectors(connector);
+            log.info("Сервер принимает запросы и на unix-сокете {}", path);
+        };
+    }
+}
@@ -9,6 +9,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPage;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.List;
@@ -25,6 +26,8 @@ public class ItemController {
 
     private static final String HEADER_REQUEST_ID = "X-Sharer-User-Id";
 
+    private static final String HEADER_NEXT_CURSOR = "X-Next-Cursor";
+
     private final ItemService itemService;
 
     @PostMapping()
@@ -53,8 +56,16 @@ public class ItemController {
 
     @GetMapping("/search")
     public ResponseEntity<List<ItemDto>> searchItem(@RequestHeader(HEADER_REQUEST_ID) Long userId,
-                                                    @RequestParam String text) {
-        return ResponseEntity.ok(itemService.searchItem(userId, text));
+                                                    @RequestParam String text,
+                                                    @RequestParam(defaultValue = "0") int from,
+                                                    @RequestParam(defaultValue = "10") int size,
+                                                    @RequestParam(required = false) String cursor) {
+        ItemPage page = itemService.searchItem(userId, text, from, size, cursor);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(HEADER_NEXT_CURSOR, page.getNextCursor());
+        }
+        return response.body(page.getItems());
     }
 
     @PostMapping("/{itemId}/comment")
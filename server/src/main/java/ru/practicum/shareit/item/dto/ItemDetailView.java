@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Вещь вместе с последним и следующим бронированием, прочитанная одним запросом.
+ * Поля бронирований равны null, если бронирования нет или пользователь не владелец вещи.
+ */
+public interface ItemDetailView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getLastBookingId();
+
+    LocalDateTime getLastBookingStart();
+
+    LocalDateTime getLastBookingEnd();
+
+    Long getNextBookingId();
+
+    LocalDateTime getNextBookingStart();
+
+    LocalDateTime getNextBookingEnd();
+
+}
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
+import java.util.List;
+
 /**
  * TODO Sprint add-controllers.
  */
@@ -26,4 +29,7 @@ public class ItemDto {
 
     private BookingDto nextBooking;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CommentDto> comments;
+
 }
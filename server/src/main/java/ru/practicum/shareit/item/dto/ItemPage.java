@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Страница результатов поиска вещей и курсор для запроса следующей страницы.
+ * Курсор равен null, если страница последняя.
+ */
+@Data
+@AllArgsConstructor
+public class ItemPage {
+
+    private List<ItemDto> items;
+
+    private String nextCursor;
+
+}
@@ -1,14 +1,18 @@
 package ru.practicum.shareit.item.dto.mappers;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.LastNextBookingView;
+import ru.practicum.shareit.booking.model.BookingRecord;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
+import ru.practicum.shareit.item.dto.ItemDetailView;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,7 +29,7 @@ public final class ItemMappers {
         return itemDto;
     }
 
-    public static ItemDto toUpdateItemDto(Item item, Booking lastBooking, Booking nextBooking) {
+    public static ItemDto toUpdateItemDto(Item item, BookingRecord lastBooking, BookingRecord nextBooking) {
         ItemDto itemDto = new ItemDto();
         itemDto.setId(item.getId());
         itemDto.setName(item.getName());
@@ -53,6 +57,46 @@ public final class ItemMappers {
         return itemDto;
     }
 
+    public static ItemDto toOwnerItemDto(Item item, BookingDto lastBooking, BookingDto nextBooking,
+                                         List<CommentDto> comments) {
+        ItemDto itemDto = toItemDto(item);
+        itemDto.setLastBooking(lastBooking);
+        itemDto.setNextBooking(nextBooking);
+        itemDto.setComments(comments);
+        return itemDto;
+    }
+
+    public static BookingDto toBookingDto(LastNextBookingView booking) {
+        return toBookingDto(booking.getId(), booking.getStartDate(), booking.getEndDate());
+    }
+
+    public static GetItemDto toItemAndCommentDto(ItemDetailView item, List<Comment> comments) {
+        GetItemDto itemDto = new GetItemDto();
+        itemDto.setId(item.getId());
+        itemDto.setName(item.getName());
+        itemDto.setDescription(item.getDescription());
+        itemDto.setAvailable(item.getAvailable());
+        itemDto.setLastBooking(toBookingDto(item.getLastBookingId(), item.getLastBookingStart(),
+                item.getLastBookingEnd()));
+        itemDto.setNextBooking(toBookingDto(item.getNextBookingId(), item.getNextBookingStart(),
+                item.getNextBookingEnd()));
+        itemDto.setComments(comments.stream()
+                .map(CommentMappers::toCommentDto)
+                .collect(Collectors.toList()));
+        return itemDto;
+    }
+
+    private static BookingDto toBookingDto(Long id, LocalDateTime start, LocalDateTime end) {
+        if (id == null) {
+            return null;
+        }
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setId(id);
+        bookingDto.setStart(start);
+        bookingDto.setEnd(end);
+        return bookingDto;
+    }
+
     public static Item toItem(ItemDto itemDto, User user) {
 
         Item newItem = new Item();
@@ -70,7 +114,8 @@ public final class ItemMappers {
         return newItem;
     }
 
-    public static GetItemDto toItemAndCommentDto(Item item, List<Comment> comment, Booking lastBooking, Booking nextBooking) {
+    public static GetItemDto toItemAndCommentDto(Item item, List<Comment> comment, BookingRecord lastBooking,
+                                                 BookingRecord nextBooking) {
         GetItemDto itemDto = new GetItemDto();
         itemDto.setId(item.getId());
         itemDto.setName(item.getName());
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.item.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -11,6 +13,8 @@ import ru.practicum.shareit.user.model.User;
 
 @Entity
 @Table(name = "ITEMS")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "items")
 @Data
 public class Item {
 
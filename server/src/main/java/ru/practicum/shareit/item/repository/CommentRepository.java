@@ -1,14 +1,20 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @Query("SELECT c FROM Comment as c JOIN FETCH c.author JOIN FETCH c.item WHERE c.item.id = :itemId")
     List<Comment> findByItemId(Long itemId);
 
+    @Query("SELECT c FROM Comment as c JOIN FETCH c.author JOIN FETCH c.item WHERE c.item.id IN :itemIds")
+    List<Comment> findByItem_IdIn(Collection<Long> itemIds);
+
 }
@@ -1,11 +1,16 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDetailView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
@@ -14,14 +19,50 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByRequest_Id(Long requestId);
 
 
+    /**
+     * Вес совпадения для поиска: 1, если text встречается в названии, иначе 0.
+     */
+    String NAME_MATCH = "CASE WHEN LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) THEN 1 ELSE 0 END";
+
+    /**
+     * Страница доступных вещей, содержащих text в названии или описании, в порядке (вес DESC, id ASC),
+     * начиная после ключа (afterScore, afterId).
+     */
     @Query(value = "SELECT i FROM Item as i WHERE " +
             "(LOWER(i.name) LIKE LOWER(concat('%', :text, '%')) OR " +
             "LOWER(i.description) LIKE LOWER(concat('%', :text,'%'))) AND " +
-            "i.available = true ")
-    List<Item> searchItem(String text);
+            "i.available = true AND " +
+            "(" + NAME_MATCH + " < :afterScore OR (" + NAME_MATCH + " = :afterScore AND i.id > :afterId)) " +
+            "ORDER BY " + NAME_MATCH + " DESC, i.id " +
+            "LIMIT :limit OFFSET :offset")
+    List<Item> searchItem(String text, int afterScore, long afterId, int offset, int limit);
 
 
     List<Item> findAllByUser_Id(Long userId);
 
+    boolean existsByUser_Id(Long userId);
+
     List<Item> findAllByRequest_IdIn(List<Long> requestIds);
+
+    /**
+     * Вещь с последним и следующим одобренным бронированием одним запросом. Бронирования подставляются,
+     * только если userId - владелец вещи; порядок тот же, что в BookingHistoryRepository.findLastBooking и BookingRepository.findNextBooking;
+     * последнее бронирование ищется и в архиве.
+     */
+    @Query(value = "SELECT i.id AS id, i.name AS name, i.description AS description, i.available AS available, " +
+            "l.id AS lastBookingId, l.start_date AS lastBookingStart, l.end_date AS lastBookingEnd, " +
+            "n.id AS nextBookingId, n.start_date AS nextBookingStart, n.end_date AS nextBookingEnd " +
+            "FROM items AS i " +
+            "LEFT JOIN (SELECT b.id, b.start_date, b.end_date FROM bookings_history AS b " +
+            "WHERE b.item_id = :itemId AND b.status = 'APPROVED' AND b.start_date < :now " +
+            "ORDER BY b.start_date DESC LIMIT 1) AS l ON i.user_id = :userId " +
+            "LEFT JOIN (SELECT b.id, b.start_date, b.end_date FROM bookings AS b " +
+            "WHERE b.item_id = :itemId AND b.status = 'APPROVED' AND b.start_date > :now " +
+            "ORDER BY b.end_date ASC LIMIT 1) AS n ON i.user_id = :userId " +
+            "WHERE i.id = :itemId", nativeQuery = true)
+    Optional<ItemDetailView> findItemDetail(Long itemId, Long userId, LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item as i WHERE i.id = :itemId")
+    Item lockById(Long itemId);
 }
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс доступных вещей в памяти узла.
+ * Названия и описания приводятся к нижнему регистру и раскладываются на n-граммы длиной от 1 до 3.
+ * Кандидаты для запроса — пересечение списков его триграмм (или список самого запроса, если он короче),
+ * после чего каждый кандидат проверяется на вхождение подстроки, так что результат совпадает с LIKE.
+ * Индекс строится при старте и обновляется после коммита создания или изменения вещи.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index", matchIfMissing = true)
+public class IndexedItemSearchEngine implements ItemSearchEngine {
+
+    static final int MAX_GRAM = 3;
+
+    private static final Comparator<ItemSearchCursor> ORDER = Comparator.comparingInt(ItemSearchCursor::score)
+            .reversed()
+            .thenComparingLong(ItemSearchCursor::itemId);
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * В транзакции на запись, чтобы читать с основной БД, а не с реплики, которая могла отстать.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void rebuild() {
+        documents.clear();
+        postings.clear();
+        itemRepository.findAll().forEach(item -> put(Document.of(item)));
+        log.info("Поисковый индекс построен: {} доступных вещей, {} n-грамм", documents.size(), postings.size());
+    }
+
+    @Override
+    public void index(Item item) {
+        Document document = Document.of(item);
+        TransactionCallbacks.afterCommit(() -> put(document));
+    }
+
+    @Override
+    public List<ItemHit> search(String text, ItemSearchCursor after, int offset, int limit) {
+        List<ItemSearchCursor> keys = top(normalize(text), after, offset, limit);
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Item> items = itemRepository.findAllById(keys.stream().map(ItemSearchCursor::itemId).toList())
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return keys.stream()
+                .filter(key -> items.containsKey(key.itemId()))
+                .map(key -> new ItemHit(items.get(key.itemId()), key.score()))
+                .filter(hit -> Boolean.TRUE.equals(hit.item().getAvailable()))
+                .toList();
+    }
+
+    /**
+     * Ключи (score, id) подходящих вещей после курсора в порядке выдачи, с пропуском offset и не больше limit.
+     * Полная сортировка не нужна: держим кучу из offset + limit лучших кандидатов.
+     */
+    List<ItemSearchCursor> top(String query, ItemSearchCursor after, int offset, int limit) {
+        if (query.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int window = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        PriorityQueue<ItemSearchCursor> best = new PriorityQueue<>(ORDER.reversed());
+        for (Long id : candidates(query)) {
+            Document document = documents.get(id);
+            if (document == null || !document.matches(query)) {
+                continue;
+            }
+            int score = document.score(query);
+            if (after != null && !after.precedes(score, document.id())) {
+                continue;
+            }
+            best.add(new ItemSearchCursor(score, document.id()));
+            if (best.size() > window) {
+                best.poll();
+            }
+        }
+        List<ItemSearchCursor> ranked = new ArrayList<>(best);
+        ranked.sort(ORDER);
+        return ranked.subList(Math.min(offset, ranked.size()), ranked.size());
+    }
+
+    private Set<Long> candidates(String query) {
+        if (query.length() <= MAX_GRAM) {
+            return postings.getOrDefault(query, Collections.emptySet());
+        }
+        List<Set<Long>> lists = new ArrayList<>();
+        for (int i = 0; i + MAX_GRAM <= query.length(); i++) {
+            Set<Long> ids = postings.get(query.substring(i, i + MAX_GRAM));
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+        Set<Long> result = new HashSet<>(lists.getFirst());
+        for (int i = 1; i < lists.size() && !result.isEmpty(); i++) {
+            result.retainAll(lists.get(i));
+        }
+        return result;
+    }
+
+    private synchronized void put(Document document) {
+        Document previous = document.available()
+                ? documents.put(document.id(), document)
+                : documents.remove(document.id());
+        Set<String> grams = document.available() ? document.grams() : Collections.emptySet();
+        if (previous != null) {
+            for (String gram : previous.grams()) {
+                if (!grams.contains(gram)) {
+                    postings.computeIfPresent(gram, (key, ids) -> {
+                        ids.remove(document.id());
+                        return ids.isEmpty() ? null : ids;
+                    });
+                }
+            }
+        }
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(document.id());
+        }
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    record Document(long id, String name, String description, boolean available) {
+
+        static Document of(Item item) {
+            return new Document(item.getId(), normalize(item.getName()), normalize(item.getDescription()),
+                    Boolean.TRUE.equals(item.getAvailable()));
+        }
+
+        boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            addGrams(name, grams);
+            addGrams(description, grams);
+            return grams;
+        }
+
+        /**
+         * Совпадение в названии весит больше, чем в описании; совпадение с начала слова — больше, чем
+         * в середине слова; название, начинающееся с запроса, получает наибольший вес.
+         */
+        int score(String query) {
+            int score = 0;
+            if (name.startsWith(query)) {
+                score += 6;
+            } else if (startsWord(name, query)) {
+                score += 4;
+            } else if (name.contains(query)) {
+                score += 3;
+            }
+            if (startsWord(description, query)) {
+                score += 2;
+            } else if (description.contains(query)) {
+                score += 1;
+            }
+            return score;
+        }
+
+        private static void addGrams(String text, Set<String> grams) {
+            for (int length = 1; length <= MAX_GRAM; length++) {
+                for (int i = 0; i + length <= text.length(); i++) {
+                    grams.add(text.substring(i, i + length));
+                }
+            }
+        }
+
+        private static boolean startsWord(String text, String query) {
+            for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + 1)) {
+                if (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
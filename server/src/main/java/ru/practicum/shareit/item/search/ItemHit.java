@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Найденная вещь вместе с ее релевантностью для текущего запроса.
+ */
+public record ItemHit(Item item, int score) {
+
+    public ItemSearchCursor cursor() {
+        return new ItemSearchCursor(score, item.getId());
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор выдачи поиска: ключ (score, id) последней отданной вещи
+ * в порядке (score DESC, id ASC).
+ */
+public record ItemSearchCursor(int score, long itemId) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String key = score + SEPARATOR + itemId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ItemSearchCursor decode(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.indexOf(SEPARATOR);
+            return new ItemSearchCursor(Integer.parseInt(key.substring(0, separator)),
+                    Long.parseLong(key.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new ValidationException("Передан некорректный курсор!");
+        }
+    }
+
+    /**
+     * Идет ли вещь с данными score и id после курсора в порядке выдачи.
+     */
+    public boolean precedes(int otherScore, long otherId) {
+        return otherScore < score || otherScore == score && otherId > itemId;
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании.
+ * Реализация выбирается свойством shareit.search.mode: index (по умолчанию) или like.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Возвращает не больше limit доступных вещей, в названии или описании которых встречается text
+     * без учета регистра, в порядке (score DESC, id ASC).
+     *
+     * @param after  курсор последней отданной вещи или null для первой страницы
+     * @param offset сколько вещей пропустить после курсора
+     */
+    List<ItemHit> search(String text, ItemSearchCursor after, int offset, int limit);
+
+    /**
+     * Сообщает движку о созданной или измененной вещи. Вызывается внутри транзакции сервиса.
+     */
+    default void index(Item item) {
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Поиск запросом LIKE '%text%' к таблице вещей, без собственного индекса.
+ * Релевантность двухуровневая: совпадение в названии выше совпадения только в описании.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "like")
+public class LikeItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<ItemHit> search(String text, ItemSearchCursor after, int offset, int limit) {
+        int afterScore = after != null ? after.score() : Integer.MAX_VALUE;
+        long afterId = after != null ? after.itemId() : 0;
+        String query = text.toLowerCase(Locale.ROOT);
+        return itemRepository.searchItem(text, afterScore, afterId, offset, limit).stream()
+                .map(item -> new ItemHit(item, score(item, query)))
+                .toList();
+    }
+
+    private static int score(Item item, String query) {
+        return item.getName() != null && item.getName().toLowerCase(Locale.ROOT).contains(query) ? 1 : 0;
+    }
+}
@@ -4,6 +4,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPage;
 import ru.practicum.shareit.item.model.Item;
 
 import java.util.List;
@@ -19,7 +20,7 @@ public interface ItemService {
 
     List<ItemDto> getItemUser(Long userId);
 
-    List<ItemDto> searchItem(Long userId, String text);
+    ItemPage searchItem(Long userId, String text, int from, int size, String cursor);
 
     CommentDto addComment(Long userId, CreateCommentDto createCommentDto, Long itemId);
 
@@ -4,43 +4,62 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.LastNextBookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRecord;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
+import ru.practicum.shareit.item.dto.ItemDetailView;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPage;
 import ru.practicum.shareit.item.dto.mappers.CommentMappers;
 import ru.practicum.shareit.item.dto.mappers.ItemMappers;
+import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemHit;
+import ru.practicum.shareit.item.search.ItemSearchCursor;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ItemServiceImpl implements ItemService {
 
+    static final int MAX_SEARCH_SIZE = 100;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final BookingHistoryRepository bookingHistoryRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchEngine itemSearchEngine;
 
     @Override
     @Transactional
     public ItemDto createItem(Long userId, ItemDto itemDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден!"));
-        return ItemMappers.toItemDto(itemRepository.save(ItemMappers.toItem(itemDto, user)));
+        Item item = itemRepository.save(ItemMappers.toItem(itemDto, user));
+        itemSearchEngine.index(item);
+        return ItemMappers.toItemDto(item);
     }
 
     @Override
@@ -68,53 +87,88 @@ public class ItemServiceImpl implements ItemService {
             updateItem.setAvailable(itemDto.getAvailable());
         }
 
-        Booking bookingLast;
+        BookingRecord bookingLast;
         Booking bookingNext;
         if (updateItem.getUser().getId().equals(userId)) {
-            bookingLast = bookingRepository.findLastBooking(itemId, LocalDateTime.now());
+            bookingLast = bookingHistoryRepository.findLastBooking(itemId, LocalDateTime.now());
             bookingNext = bookingRepository.findNextBooking(itemId, LocalDateTime.now());
         } else {
             bookingLast = null;
             bookingNext = null;
         }
 
-        return ItemMappers.toUpdateItemDto(itemRepository.save(updateItem), bookingLast, bookingNext);
+        Item savedItem = itemRepository.save(updateItem);
+        itemSearchEngine.index(savedItem);
+        return ItemMappers.toUpdateItemDto(savedItem, bookingLast, bookingNext);
     }
 
+    /**
+     * Два запроса: вещь с последним и следующим бронированием и комментарии вместе с авторами.
+     */
     @Override
     @Transactional(readOnly = true)
     public GetItemDto getItem(Long itemId, Long userId) {
-        Item item = itemRepository.findById(itemId)
+        ItemDetailView item = itemRepository.findItemDetail(itemId, userId, LocalDateTime.now())
                 .orElseThrow(() -> new NotFoundException("Item не существует!"));
-        Booking bookingLast;
-        Booking bookingNext;
-        if (item.getUser().getId().equals(userId)) {
-            bookingLast = bookingRepository.findLastBooking(itemId, LocalDateTime.now());
-            bookingNext = bookingRepository.findNextBooking(itemId, LocalDateTime.now());
-        } else {
-            bookingLast = null;
-            bookingNext = null;
-        }
-
-        return ItemMappers.toItemAndCommentDto(item, commentRepository.findByItemId(itemId), bookingLast, bookingNext);
+        return ItemMappers.toItemAndCommentDto(item, commentRepository.findByItemId(itemId));
     }
 
+    /**
+     * Список вещей владельца с последним и следующим бронированием и комментариями за три запроса
+     * независимо от числа вещей: вещи, бронирования всех вещей одним ROW_NUMBER-запросом и комментарии одним IN.
+     */
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getItemUser(Long userId) {
         log.info("Получаем предметы для User - {}", userId);
-        return itemRepository.findAllByUser_Id(userId).stream().map(ItemMappers::toItemDto).toList();
+        List<Item> items = itemRepository.findAllByUser_Id(userId);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+
+        Map<Long, BookingDto> lastBookings = new HashMap<>(items.size() * 2);
+        Map<Long, BookingDto> nextBookings = new HashMap<>(items.size() * 2);
+        for (LastNextBookingView booking : bookingRepository.findLastAndNextBookings(itemIds, LocalDateTime.now())) {
+            Map<Long, BookingDto> target = LastNextBookingView.LAST.equals(booking.getKind()) ? lastBookings : nextBookings;
+            target.put(booking.getItemId(), ItemMappers.toBookingDto(booking));
+        }
+
+        Map<Long, List<CommentDto>> comments = new HashMap<>(items.size() * 2);
+        for (Comment comment : commentRepository.findByItem_IdIn(itemIds)) {
+            comments.computeIfAbsent(comment.getItem().getId(), id -> new ArrayList<>())
+                    .add(CommentMappers.toCommentDto(comment));
+        }
+
+        return items.stream()
+                .map(item -> ItemMappers.toOwnerItemDto(item,
+                        lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        comments.getOrDefault(item.getId(), Collections.emptyList())))
+                .toList();
     }
 
+    /**
+     * Размер страницы ограничен MAX_SEARCH_SIZE, а движку передается limit + 1, чтобы понять,
+     * есть ли следующая страница, не считая общее число совпадений.
+     */
     @Override
     @Transactional(readOnly = true)
-    public List<ItemDto> searchItem(Long userId, String text) {
+    public ItemPage searchItem(Long userId, String text, int from, int size, String cursor) {
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Параметры from и size заданы некорректно!");
+        }
         if (text == null || text.isEmpty()) {
             log.info("Ничего не было указано!");
-            return Collections.emptyList();
+            return new ItemPage(Collections.emptyList(), null);
         }
         log.info("Возвращаем список с фильтром: {}", text);
-        return itemRepository.searchItem(text).stream().map(ItemMappers::toItemDto).toList();
+        int limit = Math.min(size, MAX_SEARCH_SIZE);
+        ItemSearchCursor after = cursor != null && !cursor.isBlank() ? ItemSearchCursor.decode(cursor) : null;
+        List<ItemHit> hits = itemSearchEngine.search(text, after, after != null ? 0 : from, limit + 1);
+        List<ItemHit> page = hits.subList(0, Math.min(limit, hits.size()));
+        String nextCursor = hits.size() > limit ? page.getLast().cursor().encode() : null;
+        return new ItemPage(page.stream().map(hit -> ItemMappers.toItemDto(hit.item())).toList(), nextCursor);
     }
 
     @Override
@@ -122,13 +176,13 @@ public class ItemServiceImpl implements ItemService {
     public CommentDto addComment(Long userId, CreateCommentDto createCommentDto, Long itemId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден!"));
-        List<Booking> bookings = bookingRepository.findByBookerIdAndItemIdAndStatusAndEndBefore(
+        boolean booked = bookingHistoryRepository.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(
                 userId,
                 itemId,
                 BookingStatus.APPROVED,
                 LocalDateTime.now()
         );
-        if (bookings.isEmpty()) {
+        if (!booked) {
             log.error("Пользователь не арендовал эту вещь или бронирование еще не завершено!");
             throw new ValidationException("Пользователь не арендовал эту вещь или бронирование еще не завершено!");
         }
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.user.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.util.TransactionCallbacks;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Фильтр Блума по почтам пользователей в памяти узла. Если почты в фильтре нет, запрос в БД не нужен;
+ * совпадение в фильтре подтверждает запрос в БД из UserServiceImpl, он же отсекает ложные срабатывания
+ * и почты, которые уже освобождены здесь или на другом узле. Фильтр не умеет удалять, поэтому
+ * удаленные и замененные почты остаются в нем до перестроения при старте.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.users.email-registry.enabled", havingValue = "true")
+public class BloomEmailRegistry implements EmailRegistry {
+
+    private final UserRepository userRepository;
+
+    @Value("${shareit.users.email-registry.expected-users:100000}")
+    private int expectedUsers;
+
+    private volatile EmailBloomFilter filter = new EmailBloomFilter(1);
+
+    /**
+     * В транзакции на запись, чтобы читать с основной БД, а не с реплики, которая могла отстать.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void rebuild() {
+        List<User> users = userRepository.findAll();
+        EmailBloomFilter rebuilt = new EmailBloomFilter(Math.max(expectedUsers, users.size() * 2));
+        for (User user : users) {
+            rebuilt.add(user.getEmail());
+        }
+        filter = rebuilt;
+        log.info("Реестр почт построен: {} пользователей", users.size());
+    }
+
+    @Override
+    public boolean mightBeTaken(String email) {
+        return filter.mightContain(email);
+    }
+
+    @Override
+    public void onSaved(User user, String previousEmail) {
+        String email = user.getEmail();
+        TransactionCallbacks.afterCommit(() -> filter.add(email));
+    }
+
+    /**
+     * Фильтр Блума на AtomicLongArray с долей ложных срабатываний около 1% при заданном числе элементов.
+     * Индексы получаются двойным хешированием от String.hashCode и FNV-1a.
+     */
+    static final class EmailBloomFilter {
+
+        private static final int HASHES = 7;
+
+        private static final int BITS_PER_ELEMENT = 10;
+
+        private final AtomicLongArray words;
+
+        private final long bits;
+
+        EmailBloomFilter(int expectedElements) {
+            long size = Math.max(64L, (long) expectedElements * BITS_PER_ELEMENT);
+            this.words = new AtomicLongArray((int) ((size + 63) / 64));
+            this.bits = words.length() * 64L;
+        }
+
+        void add(String value) {
+            int first = Objects.hashCode(value);
+            int second = fnv(value);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = index(first, second, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            int first = Objects.hashCode(value);
+            int second = fnv(value);
+            for (int i = 0; i < HASHES; i++) {
+                long bit = index(first, second, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(int first, int second, int i) {
+            return Math.floorMod(first + (long) i * second, bits);
+        }
+
+        private static int fnv(String value) {
+            int hash = 0x811c9dc5;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x01000193;
+            }
+            return hash | 1;
+        }
+    }
+}
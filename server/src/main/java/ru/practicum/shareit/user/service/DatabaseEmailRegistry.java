@@ -0,0 +1,17 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Без локального состояния: каждая проверка почты выполняется запросом в БД.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.users.email-registry.enabled", havingValue = "false", matchIfMissing = true)
+public class DatabaseEmailRegistry implements EmailRegistry {
+
+    @Override
+    public boolean mightBeTaken(String email) {
+        return true;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.user.service;
+
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Предварительная проверка занятости почты перед запросом в БД.
+ * Реализация выбирается свойством shareit.users.email-registry.enabled: по умолчанию каждая проверка идет в БД.
+ * Окончательную уникальность в любом случае гарантирует ограничение UQ_USER_EMAIL.
+ */
+public interface EmailRegistry {
+
+    /**
+     * false - почта точно не занята другим пользователем и проверять ее в БД не нужно;
+     * true - почта, возможно, занята, и ответ нужно подтвердить запросом в БД.
+     */
+    boolean mightBeTaken(String email);
+
+    /**
+     * Сообщает о сохраненном пользователе. Вызывается внутри транзакции сервиса.
+     *
+     * @param previousEmail почта до изменения или null для нового пользователя
+     */
+    default void onSaved(User user, String previousEmail) {
+    }
+}
@@ -2,6 +2,8 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.DuplicateException;
@@ -12,12 +14,17 @@ import ru.practicum.shareit.user.dto.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.util.Locale;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserServiceImpl implements UserService {
 
+    private static final String EMAIL_CONSTRAINT = "uq_user_email";
+
     private final UserRepository userRepository;
+    private final EmailRegistry emailRegistry;
 
     @Override
     @Transactional(readOnly = true)
@@ -31,11 +38,14 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public UserDto createUser(UserDto userDto) {
-        if (userDto.getEmail() != null && userRepository.existsByEmail(userDto.getEmail())) {
+        if (userDto.getEmail() != null && emailTaken(userDto.getEmail(), null)) {
             throw new DuplicateException("Указанная почта уже зарегистрирована!");
         }
-        return UserMapper.mapToUserDto(userRepository.save(UserMapper.mapToUser(userDto)));
+        User user = saveUser(UserMapper.mapToUser(userDto));
+        emailRegistry.onSaved(user, null);
+        return UserMapper.mapToUserDto(user);
     }
 
     @Override
@@ -47,14 +57,13 @@ public class UserServiceImpl implements UserService {
             log.info("Пользователь не найден!");
             throw new NotFoundException("Пользователь не найден!");
         }
+        String previousEmail = user.getEmail();
 
         if (userDto.getEmail() != null && !userDto.getEmail().isEmpty()) {
             if (!user.getEmail().contains("@")) {
                 throw new ValidationException("Имя почты указано не корректно!");
             }
-            boolean containsEmail = userRepository.findAll().stream()
-                    .anyMatch(existingUser -> existingUser.getEmail().equals(userDto.getEmail()));
-            if (containsEmail) {
+            if (emailTaken(userDto.getEmail(), userId)) {
                 throw new DuplicateException("Указанная почта уже зарегистрирована!");
             }
             user.setEmail(userDto.getEmail());
@@ -64,8 +73,10 @@ public class UserServiceImpl implements UserService {
             user.setName(userDto.getName());
         }
 
+        User saved = saveUser(user);
+        emailRegistry.onSaved(saved, previousEmail);
         log.info("Пользователь с ID: {} успешно обновлен!", userId);
-        return UserMapper.mapToUserDto(userRepository.save(user));
+        return UserMapper.mapToUserDto(saved);
     }
 
     @Override
@@ -79,4 +90,34 @@ public class UserServiceImpl implements UserService {
         userRepository.delete(user);
     }
 
+    /**
+     * Почта, уже принадлежащая userId, занятой не считается. Реестр отсекает заведомо свободные
+     * почты без запроса; остальные проверяются точечным запросом по уникальному индексу email.
+     */
+    private boolean emailTaken(String email, Long userId) {
+        if (!emailRegistry.mightBeTaken(email)) {
+            return false;
+        }
+        return userId == null
+                ? userRepository.existsByEmail(email)
+                : userRepository.existsByEmailAndIdNot(email, userId);
+    }
+
+    /**
+     * Проверка выше не защищает от гонки двух запросов с одной почтой: окончательно дубликат
+     * отсекает ограничение UQ_USER_EMAIL, нарушение которого переводим в DuplicateException.
+     */
+    private User saveUser(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String message = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            if (message != null && message.toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)) {
+                log.info("Почта {} уже зарегистрирована", user.getEmail());
+                throw new DuplicateException("Указанная почта уже зарегистрирована!");
+            }
+            throw e;
+        }
+    }
+
 }
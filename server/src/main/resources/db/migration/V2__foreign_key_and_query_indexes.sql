@@ -0,0 +1,21 @@
+-- Индексы под внешние ключи и предикаты списочных запросов BookingRepository, ItemRepository,
+-- CommentRepository и ItemRequestRepository. Порядок колонок: сначала равенство, затем сортировка или диапазон.
+
+-- findByBooker_Id*: booker_id = ? [AND status = ?] ORDER BY start_date DESC, id DESC
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON BOOKINGS (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON BOOKINGS (booker_id, status, start_date DESC, id DESC);
+
+-- findLastBooking, findNextBooking, findLastAndNextBookings, existsOverlapping, findByItem_IdAndStatusInAndEndAfter,
+-- а также бронирования владельца через items.user_id
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON BOOKINGS (item_id, status, start_date);
+
+-- findByStatusInAndEndAfter: прогрев занятых интервалов при старте
+CREATE INDEX IF NOT EXISTS ix_bookings_status_end ON BOOKINGS (status, end_date);
+
+CREATE INDEX IF NOT EXISTS ix_items_user ON ITEMS (user_id);
+CREATE INDEX IF NOT EXISTS ix_items_request ON ITEMS (request_id);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item ON COMMENTS (item_id);
+CREATE INDEX IF NOT EXISTS ix_comments_author ON COMMENTS (author_id);
+
+CREATE INDEX IF NOT EXISTS ix_item_requests_requestor_created ON ITEM_REQUESTS (requestor_id, created DESC);
@@ -0,0 +1,14 @@
+-- Владелец вещи в самом бронировании: выборки владельца идут по индексу BOOKINGS без соединения с ITEMS.
+ALTER TABLE BOOKINGS ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+
+UPDATE BOOKINGS SET owner_id = (SELECT i.user_id FROM ITEMS AS i WHERE i.id = BOOKINGS.item_id)
+WHERE owner_id IS NULL;
+
+-- Пара (item_id, owner_id) обязана совпадать с (id, user_id) вещи; при смене владельца вещи колонка обновляется каскадно
+ALTER TABLE ITEMS ADD CONSTRAINT uq_item_owner UNIQUE (id, user_id);
+ALTER TABLE BOOKINGS ADD CONSTRAINT fk_booking_item_owner FOREIGN KEY (item_id, owner_id)
+    REFERENCES ITEMS (id, user_id) ON UPDATE CASCADE ON DELETE CASCADE;
+
+-- findByOwnerId*: owner_id = ? [AND status = ?] ORDER BY start_date DESC, id DESC
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_start ON BOOKINGS (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_status_start ON BOOKINGS (owner_id, status, start_date DESC, id DESC);
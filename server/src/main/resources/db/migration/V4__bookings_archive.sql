@@ -0,0 +1,34 @@
+-- Холодный архив бронирований: BookingArchiver переносит сюда бронирования, закончившиеся раньше горизонта
+-- shareit.bookings.archive.horizon. В BOOKINGS остаются текущие, будущие и недавние бронирования.
+CREATE TABLE IF NOT EXISTS BOOKINGS_ARCHIVE
+(
+    id         BIGINT      NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE,
+    end_date   TIMESTAMP WITHOUT TIME ZONE,
+    item_id    BIGINT,
+    owner_id   BIGINT,
+    booker_id  BIGINT,
+    status     VARCHAR(50),
+    CONSTRAINT pk_booking_archive PRIMARY KEY (id),
+    CONSTRAINT fk_booking_archive_item FOREIGN KEY (item_id) REFERENCES ITEMS (id) ON DELETE CASCADE,
+    CONSTRAINT fk_booking_archive_item_owner FOREIGN KEY (item_id, owner_id)
+        REFERENCES ITEMS (id, user_id) ON UPDATE CASCADE ON DELETE CASCADE,
+    CONSTRAINT fk_booking_archive_booker FOREIGN KEY (booker_id) REFERENCES USERS (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON BOOKINGS_ARCHIVE (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_status_start
+    ON BOOKINGS_ARCHIVE (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_owner_start ON BOOKINGS_ARCHIVE (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_owner_status_start
+    ON BOOKINGS_ARCHIVE (owner_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_status_start ON BOOKINGS_ARCHIVE (item_id, status, start_date);
+
+-- findFinishedIds: выбор очередной пачки для архива
+CREATE INDEX IF NOT EXISTS ix_bookings_end ON BOOKINGS (end_date);
+
+-- Вся история: запросы ALL, PAST и REJECTED, чтение по id и последнее бронирование вещи
+CREATE VIEW BOOKINGS_HISTORY AS
+SELECT id, start_date, end_date, item_id, owner_id, booker_id, status FROM BOOKINGS
+UNION ALL
+SELECT id, start_date, end_date, item_id, owner_id, booker_id, status FROM BOOKINGS_ARCHIVE;
@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.RequestBookingCreateDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
@@ -128,15 +129,15 @@ class BookingControllerTest {
 
         List<BookingCreateDto> expectedBookings = Arrays.asList(booking1, booking2);
 
-        when(bookingService.getAllBookingsToUser(userId, state)).thenReturn(expectedBookings);
+        when(bookingService.getAllBookingsToUser(userId, state, 0, 10, null)).thenReturn(new BookingPage(expectedBookings, null));
 
-        ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllBookingsToUser(userId, state);
+        ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllBookingsToUser(userId, state, 0, 10, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(2, response.getBody().size());
         assertEquals(expectedBookings, response.getBody());
-        verify(bookingService, times(1)).getAllBookingsToUser(userId, state);
+        verify(bookingService, times(1)).getAllBookingsToUser(userId, state, 0, 10, null);
     }
 
     @Test
@@ -146,14 +147,14 @@ class BookingControllerTest {
 
         List<BookingCreateDto> expectedBookings = Arrays.asList();
 
-        when(bookingService.getAllBookingsToUser(userId, "ALL")).thenReturn(expectedBookings);
+        when(bookingService.getAllBookingsToUser(userId, "ALL", 0, 10, null)).thenReturn(new BookingPage(expectedBookings, null));
 
-        ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllBookingsToUser(userId, "ALL");
+        ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllBookingsToUser(userId, "ALL", 0, 10, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertTrue(response.getBody().isEmpty());
-        verify(bookingService, times(1)).getAllBookingsToUser(userId, "ALL");
+        verify(bookingService, times(1)).getAllBookingsToUser(userId, "ALL", 0, 10, null);
     }
 
     @Test
@@ -163,14 +164,14 @@ class BookingControllerTest {
 
         for (String state : states) {
             List<BookingCreateDto> expectedBookings = Arrays.asList(new BookingCreateDto());
-            when(bookingService.getAllBookingsToUser(userId, state)).thenReturn(expectedBookings);
+            when(bookingService.getAllBookingsToUser(userId, state, 0, 10, null)).thenReturn(new BookingPage(expectedBookings, null));
 
-            ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllBookingsToUser(userId, state);
+            ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllBookingsToUser(userId, state, 0, 10, null);
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertNotNull(response.getBody());
             assertEquals(1, response.getBody().size());
-            verify(bookingService, times(1)).getAllBookingsToUser(userId, state);
+            verify(bookingService, times(1)).getAllBookingsToUser(userId, state, 0, 10, null);
 
             reset(bookingService);
         }
@@ -190,15 +191,15 @@ class BookingControllerTest {
 
         List<BookingCreateDto> expectedBookings = Arrays.asList(booking1, booking2);
 
-        when(bookingService.getAllItemBookingToUser(userId, state)).thenReturn(expectedBookings);
+        when(bookingService.getAllItemBookingToUser(userId, state, 0, 10, null)).thenReturn(new BookingPage(expectedBookings, null));
 
-        ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllItemBookingToUser(userId, state);
+        ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllItemBookingToUser(userId, state, 0, 10, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(2, response.getBody().size());
         assertEquals(expectedBookings, response.getBody());
-        verify(bookingService, times(1)).getAllItemBookingToUser(userId, state);
+        verify(bookingService, times(1)).getAllItemBookingToUser(userId, state, 0, 10, null);
     }
 
     @Test
@@ -208,14 +209,14 @@ class BookingControllerTest {
 
         List<BookingCreateDto> expectedBookings = Arrays.asList();
 
-        when(bookingService.getAllItemBookingToUser(userId, "ALL")).thenReturn(expectedBookings);
+        when(bookingService.getAllItemBookingToUser(userId, "ALL", 0, 10, null)).thenReturn(new BookingPage(expectedBookings, null));
 
-        ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllItemBookingToUser(userId, "ALL");
+        ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllItemBookingToUser(userId, "ALL", 0, 10, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertTrue(response.getBody().isEmpty());
-        verify(bookingService, times(1)).getAllItemBookingToUser(userId, "ALL");
+        verify(bookingService, times(1)).getAllItemBookingToUser(userId, "ALL", 0, 10, null);
     }
 
     @Test
@@ -226,16 +227,33 @@ class BookingControllerTest {
 
         for (String state : states) {
             List<BookingCreateDto> expectedBookings = Arrays.asList(new BookingCreateDto());
-            when(bookingService.getAllItemBookingToUser(userId, state)).thenReturn(expectedBookings);
+            when(bookingService.getAllItemBookingToUser(userId, state, 0, 10, null)).thenReturn(new BookingPage(expectedBookings, null));
 
-            ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllItemBookingToUser(userId, state);
+            ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllItemBookingToUser(userId, state, 0, 10, null);
 
             assertEquals(HttpStatus.OK, response.getStatusCode());
             assertNotNull(response.getBody());
             assertEquals(1, response.getBody().size());
-            verify(bookingService, times(1)).getAllItemBookingToUser(userId, state);
+            verify(bookingService, times(1)).getAllItemBookingToUser(userId, state, 0, 10, null);
 
             reset(bookingService);
         }
     }
+
+    @Test
+    void getAllBookingsToUser_WhenNextPageExists_ShouldReturnCursorHeader() {
+
+        Long userId = 1L;
+
+        List<BookingCreateDto> expectedBookings = Arrays.asList(new BookingCreateDto());
+
+        when(bookingService.getAllBookingsToUser(userId, "ALL", 0, 1, null))
+                .thenReturn(new BookingPage(expectedBookings, "next"));
+
+        ResponseEntity<List<BookingCreateDto>> response = bookingController.getAllBookingsToUser(userId, "ALL", 0, 1, null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertEquals(expectedBookings, response.getBody());
+    }
 }
@@ -0,0 +1,201 @@
+package ru.practicum.shareit.booking.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.dto.LastNextBookingView;
+import ru.practicum.shareit.booking.dto.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHistory;
+import ru.practicum.shareit.booking.model.BookingRecord;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.config.EntityCacheConfig;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Страница бронирований любого размера должна читаться одним SELECT вместе с item и booker.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+@Import(EntityCacheConfig.class)
+class BookingRepositoryTest {
+
+    private static final int BOOKINGS = 5;
+
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    private static final Limit LIMIT = Limit.of(BOOKINGS);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingHistoryRepository bookingHistoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private User owner;
+
+    private User booker;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        now = LocalDateTime.now().withNano(0);
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+        for (int i = 0; i < BOOKINGS; i++) {
+            Item item = new Item();
+            item.setName("item" + i);
+            item.setDescription("description" + i);
+            item.setAvailable(true);
+            item.setUser(owner);
+            em.persist(item);
+
+            Booking booking = new Booking();
+            booking.setItem(item);
+            booking.setBooker(booker);
+            booking.setStatus(BookingStatus.WAITING);
+            booking.setStart(now.minusDays(i + 1));
+            booking.setEnd(now.plusDays(i + 1));
+            em.persist(booking);
+        }
+        em.flush();
+    }
+
+    @Test
+    void bookerLists_ShouldLoadItemAndBookerInOneStatement() {
+        Long bookerId = booker.getId();
+        ScrollPosition first = ScrollPosition.offset();
+
+        assertSingleStatement(() -> bookingHistoryRepository.findByBooker_Id(bookerId, first, SORT, LIMIT));
+        assertSingleStatement(() -> bookingRepository.findByBooker_IdAndStatus(bookerId, BookingStatus.WAITING,
+                first, SORT, LIMIT));
+        assertSingleStatement(() -> bookingRepository.findByBooker_IdAndStartLessThanEqualAndEndGreaterThanEqual(
+                bookerId, now, now, first, SORT, LIMIT));
+    }
+
+    @Test
+    void ownerLists_ShouldLoadItemAndBookerInOneStatement() {
+        Long ownerId = owner.getId();
+        ScrollPosition first = ScrollPosition.offset();
+
+        assertSingleStatement(() -> bookingHistoryRepository.findByOwnerId(ownerId, first, SORT, LIMIT));
+        assertSingleStatement(() -> bookingRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.WAITING,
+                first, SORT, LIMIT));
+        assertSingleStatement(() -> bookingRepository.findByOwnerIdAndStartLessThanEqualAndEndGreaterThanEqual(
+                ownerId, now, now, first, SORT, LIMIT));
+    }
+
+    @Test
+    void keysetPage_ShouldLoadItemAndBookerInOneStatement() {
+        BookingHistory first = bookingHistoryRepository
+                .findByBooker_Id(booker.getId(), ScrollPosition.offset(), SORT, Limit.of(1))
+                .getContent().getFirst();
+        ScrollPosition next = ScrollPosition.forward(Map.of("start", first.getStart(), "id", first.getId()));
+
+        assertSingleStatement(() -> bookingHistoryRepository.findByOwnerId(owner.getId(), next, SORT, LIMIT));
+    }
+
+    @Test
+    void findLastAndNextBookings_ShouldReturnOneOfEachKindPerItem() {
+        Item item = persistItem("drill");
+        Item idle = persistItem("saw");
+        Booking older = persistBooking(item, BookingStatus.APPROVED, now.minusDays(10), now.minusDays(8));
+        Booking last = persistBooking(item, BookingStatus.APPROVED, now.minusDays(3), now.minusDays(2));
+        persistBooking(item, BookingStatus.REJECTED, now.minusDays(1), now.minusHours(1));
+        persistBooking(item, BookingStatus.APPROVED, now.plusDays(1), now.plusDays(9));
+        Booking next = persistBooking(item, BookingStatus.APPROVED, now.plusDays(2), now.plusDays(3));
+        persistBooking(item, BookingStatus.WAITING, now.plusHours(1), now.plusHours(2));
+        em.flush();
+        em.clear();
+
+        List<LastNextBookingView> result = bookingRepository.findLastAndNextBookings(List.of(item.getId(), idle.getId()), now);
+
+        assertEquals(2, result.size());
+        Map<String, LastNextBookingView> byKind = result.stream()
+                .collect(Collectors.toMap(LastNextBookingView::getKind, Function.identity()));
+        assertEquals(last.getId(), byKind.get(LastNextBookingView.LAST).getId());
+        assertEquals(item.getId(), byKind.get(LastNextBookingView.LAST).getItemId());
+        assertEquals(last.getStart(), byKind.get(LastNextBookingView.LAST).getStartDate());
+        assertEquals(next.getId(), byKind.get(LastNextBookingView.NEXT).getId());
+        assertEquals(next.getEnd(), byKind.get(LastNextBookingView.NEXT).getEndDate());
+        assertNotEquals(older.getId(), byKind.get(LastNextBookingView.LAST).getId());
+    }
+
+    @Test
+    void ownerId_ShouldBeFilledOnCreateAndFollowItemOwner() {
+        Item item = persistItem("drill");
+        Booking booking = persistBooking(item, BookingStatus.WAITING, now.plusDays(1), now.plusDays(2));
+        em.flush();
+
+        assertEquals(owner.getId(), booking.getOwnerId());
+
+        User newOwner = em.persist(new User(null, "new owner", "new-owner@mail.ru"));
+        item.setUser(newOwner);
+        em.flush();
+        em.clear();
+
+        assertEquals(newOwner.getId(), bookingRepository.findById(booking.getId()).orElseThrow().getOwnerId());
+    }
+
+    private Item persistItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        item.setUser(owner);
+        return em.persist(item);
+    }
+
+    private Booking persistBooking(Item item, BookingStatus status, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return em.persist(booking);
+    }
+
+    private void assertSingleStatement(Supplier<Window<? extends BookingRecord>> query) {
+        em.clear();
+        statistics.clear();
+
+        Window<? extends BookingRecord> window = query.get();
+        BookingMapper.toListBookingDto(window.getContent());
+
+        assertFalse(window.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+}
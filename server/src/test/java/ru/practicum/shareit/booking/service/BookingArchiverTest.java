@@ -0,0 +1,249 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.jdbc.JdbcTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.LastNextBookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHistory;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Перенос закончившихся бронирований в архив пачками и чтение истории вместе с архивом. Тест работает
+ * без общей транзакции, как архиватор на узле: каждая пачка фиксируется сама, а данные удаляются после теста.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "shareit.bookings.archive.enabled=true",
+        "shareit.bookings.archive.batch-size=2"
+})
+@Import(BookingArchiver.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookingArchiverTest {
+
+    private static final int OLD_BOOKINGS = 5;
+
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingHistoryRepository bookingHistoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private LocalDateTime now;
+
+    private User owner;
+
+    private User booker;
+
+    private Item item;
+
+    private final List<Booking> old = new ArrayList<>();
+
+    private Booking recent;
+
+    private Booking future;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().withNano(0);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+            booker = em.persist(new User(null, "booker", "booker@mail.ru"));
+            item = new Item();
+            item.setName("Дрель");
+            item.setDescription("Аккумуляторная дрель");
+            item.setAvailable(true);
+            item.setUser(owner);
+            em.persist(item);
+            for (int i = 0; i < OLD_BOOKINGS; i++) {
+                old.add(persistBooking(now.minusYears(2).plusDays(i), now.minusYears(2).plusDays(i + 1)));
+            }
+            recent = persistBooking(now.minusDays(3), now.minusDays(2));
+            future = persistBooking(now.plusDays(2), now.plusDays(3));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTestUtils.deleteFromTables(new JdbcTemplate(dataSource), "bookings_archive", "bookings", "items", "users");
+    }
+
+    @Test
+    void archiveFinishedBefore_ShouldMoveOnlyOldBookingsInBatches() {
+        int moved = bookingArchiver.archiveFinishedBefore(now.minusYears(1));
+
+        assertEquals(OLD_BOOKINGS, moved);
+        assertEquals(2, bookingRepository.count());
+        assertTrue(bookingRepository.findById(recent.getId()).isPresent());
+        assertTrue(bookingRepository.findById(old.getFirst().getId()).isEmpty());
+        assertEquals(0, bookingArchiver.archiveFinishedBefore(now.minusYears(1)));
+    }
+
+    @Test
+    void archiveFinishedBefore_ShouldKeepWaitingBookings() {
+        Booking waiting = new TransactionTemplate(transactionManager).execute(status ->
+                persistBooking(now.minusYears(3), now.minusYears(3).plusDays(1), BookingStatus.WAITING));
+
+        int moved = bookingArchiver.archiveFinishedBefore(now.minusYears(1));
+
+        assertEquals(OLD_BOOKINGS, moved);
+        assertTrue(bookingRepository.findById(waiting.getId()).isPresent());
+        assertEquals(0, JdbcTestUtils.countRowsInTableWhere(new JdbcTemplate(dataSource), "bookings_archive",
+                "id = " + waiting.getId()));
+    }
+
+    @Test
+    void history_ShouldIncludeArchivedBookings() {
+        bookingArchiver.archiveFinishedBefore(now.minusYears(1));
+
+        List<BookingHistory> all = bookingHistoryRepository
+                .findByBooker_Id(booker.getId(), ScrollPosition.offset(), SORT, Limit.of(10)).getContent();
+        List<BookingHistory> past = bookingHistoryRepository
+                .findByOwnerIdAndEndBefore(owner.getId(), now, ScrollPosition.offset(), SORT, Limit.of(10)).getContent();
+
+        assertEquals(OLD_BOOKINGS + 2, all.size());
+        assertEquals(future.getId(), all.getFirst().getId());
+        assertEquals(old.getFirst().getId(), all.getLast().getId());
+        assertEquals(OLD_BOOKINGS + 1, past.size());
+        assertEquals(BookingStatus.APPROVED, bookingHistoryRepository.findById(old.getFirst().getId())
+                .orElseThrow().getStatus());
+        assertTrue(bookingHistoryRepository.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(booker.getId(),
+                item.getId(), BookingStatus.APPROVED, now.minusYears(1)));
+    }
+
+    @Test
+    void lastBooking_ShouldBeFoundInArchive() {
+        bookingRepository.deleteAllByIdInBatch(List.of(recent.getId()));
+        bookingArchiver.archiveFinishedBefore(now.minusYears(1));
+
+        List<LastNextBookingView> lastAndNext = bookingRepository.findLastAndNextBookings(List.of(item.getId()), now);
+        Long last = lastAndNext.stream()
+                .filter(view -> LastNextBookingView.LAST.equals(view.getKind()))
+                .findFirst().orElseThrow().getId();
+
+        assertEquals(old.getLast().getId(), last);
+        assertEquals(old.getLast().getId(), bookingHistoryRepository.findLastBooking(item.getId(), now).getId());
+    }
+
+    @Test
+    void archiveFinishedBefore_ShouldCommitEachBatchOnItsOwn() {
+        execute("INSERT INTO bookings_archive (id, start_date, end_date, item_id, owner_id, booker_id, status) "
+                + "SELECT id, start_date, end_date, item_id, owner_id, booker_id, status FROM bookings WHERE id = "
+                + old.get(2).getId());
+
+        int moved = bookingArchiver.archiveFinishedBefore(now.minusYears(1));
+
+        assertEquals(2, moved);
+        assertTrue(bookingRepository.findById(old.get(1).getId()).isEmpty());
+        assertTrue(bookingRepository.findById(old.get(2).getId()).isPresent());
+        assertTrue(bookingRepository.findById(old.get(3).getId()).isPresent());
+    }
+
+    @Test
+    void archiveFinishedBefore_WhenOtherNodeMovesSameBatch_ShouldGiveWayWithoutError() throws Exception {
+        String ids = old.get(0).getId() + ", " + old.get(1).getId();
+        try (Connection otherNode = dataSource.getConnection();
+             ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            otherNode.setAutoCommit(false);
+            try (Statement statement = otherNode.createStatement()) {
+                statement.executeUpdate("INSERT INTO bookings_archive "
+                        + "(id, start_date, end_date, item_id, owner_id, booker_id, status) "
+                        + "SELECT id, start_date, end_date, item_id, owner_id, booker_id, status FROM bookings "
+                        + "WHERE id IN (" + ids + ")");
+                statement.executeUpdate("DELETE FROM bookings WHERE id IN (" + ids + ")");
+            }
+
+            Future<Integer> thisNode = executor.submit(() -> bookingArchiver.archiveFinishedBefore(now.minusYears(1)));
+            awaitBlockedSession();
+            otherNode.commit();
+
+            assertEquals(0, thisNode.get(10, TimeUnit.SECONDS));
+        }
+        assertTrue(bookingRepository.findById(old.get(1).getId()).isEmpty());
+        assertTrue(bookingRepository.findById(old.get(2).getId()).isPresent());
+        assertEquals(OLD_BOOKINGS - 2, bookingArchiver.archiveFinishedBefore(now.minusYears(1)));
+        assertEquals(2, bookingRepository.count());
+    }
+
+    /**
+     * Ждет, пока архиватор упрется в незафиксированную пачку другого узла.
+     */
+    private void awaitBlockedSession() throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet blocked = statement.executeQuery(
+                         "SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS WHERE BLOCKER_ID IS NOT NULL")) {
+                if (blocked.next() && blocked.getInt(1) > 0) {
+                    return;
+                }
+            }
+            Thread.sleep(10);
+        }
+        fail("Архиватор не дошел до пачки другого узла");
+    }
+
+    private void execute(String sql) {
+        new JdbcTemplate(dataSource).execute(sql);
+    }
+
+    private Booking persistBooking(LocalDateTime start, LocalDateTime end) {
+        return persistBooking(start, end, BookingStatus.APPROVED);
+    }
+
+    private Booking persistBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return em.persist(booking);
+    }
+}
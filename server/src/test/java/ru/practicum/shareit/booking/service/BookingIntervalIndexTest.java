@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @InjectMocks
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(bookingRepository.findByStatusInAndEndAfter(eq(BookingIntervalIndex.ACTIVE_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(1L, 10L, DAY, DAY.plusDays(2)), booking(2L, 10L, DAY.plusDays(5), DAY.plusDays(6))));
+        index.warmUp();
+    }
+
+    @Test
+    void overlaps_WhenIntervalIntersectsExistingBooking_ShouldReturnTrue() {
+        assertTrue(index.overlaps(10L, DAY.plusDays(1), DAY.plusDays(3)));
+        assertTrue(index.overlaps(10L, DAY.minusDays(1), DAY.plusDays(1)));
+        assertTrue(index.overlaps(10L, DAY.plusDays(4), DAY.plusDays(7)));
+    }
+
+    @Test
+    void overlaps_WhenIntervalFitsBetweenBookings_ShouldReturnFalse() {
+        assertFalse(index.overlaps(10L, DAY.plusDays(2), DAY.plusDays(5)));
+        assertFalse(index.overlaps(10L, DAY.minusDays(3), DAY));
+        assertFalse(index.overlaps(10L, DAY.plusDays(6), DAY.plusDays(9)));
+    }
+
+    @Test
+    void overlaps_WhenItemHasNoBookings_ShouldReturnFalse() {
+        assertFalse(index.overlaps(11L, DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void add_ShouldMakeIntervalBusy() {
+        index.add(booking(3L, 11L, DAY, DAY.plusDays(1)));
+
+        assertTrue(index.overlaps(11L, DAY.plusHours(1), DAY.plusHours(2)));
+    }
+
+    @Test
+    void remove_ShouldFreeInterval() {
+        index.remove(10L, 1L);
+
+        assertFalse(index.overlaps(10L, DAY, DAY.plusDays(2)));
+        assertTrue(index.overlaps(10L, DAY.plusDays(5), DAY.plusDays(6)));
+    }
+
+    @Test
+    void reload_ShouldReplaceItemIntervalsWithDatabaseState() {
+        when(bookingRepository.findByItem_IdAndStatusInAndEndAfter(eq(10L), eq(BookingIntervalIndex.ACTIVE_STATUSES), any(LocalDateTime.class)))
+                .thenReturn(List.of(booking(4L, 10L, DAY.plusDays(3), DAY.plusDays(4))));
+
+        index.reload(10L);
+
+        assertFalse(index.overlaps(10L, DAY, DAY.plusDays(2)));
+        assertTrue(index.overlaps(10L, DAY.plusDays(3), DAY.plusDays(4)));
+    }
+
+    private static Booking booking(Long id, Long itemId, LocalDateTime start, LocalDateTime end) {
+        Item item = new Item();
+        item.setId(itemId);
+
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.APPROVED);
+        return booking;
+    }
+}
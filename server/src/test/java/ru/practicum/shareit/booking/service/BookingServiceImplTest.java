@@ -5,11 +5,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHistory;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.dto.RequestBookingCreateDto;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
@@ -21,6 +28,7 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,15 +41,23 @@ class BookingServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingHistoryRepository bookingHistoryRepository;
+
     @Mock
     private UserRepository userRepository;
 
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private BookingIntervalIndex bookingIntervalIndex;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
+    private static final Sort PAGE_SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+
     @Test
     void createBooking_WithValidData_ShouldCreateBooking() {
 
@@ -79,7 +95,78 @@ class BookingServiceImplTest {
         assertNotNull(result);
         verify(userRepository, times(1)).findById(userId);
         verify(itemRepository, times(1)).findById(itemId);
+        verify(itemRepository, times(1)).lockById(itemId);
         verify(bookingRepository, times(1)).save(any(Booking.class));
+        verify(bookingIntervalIndex, times(1)).add(booking);
+    }
+
+    @Test
+    void createBooking_WhenIndexHasOverlap_ShouldThrowWithoutTouchingDatabase() {
+
+        Long userId = 1L;
+        Long itemId = 1L;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(2);
+
+        RequestBookingCreateDto requestDto = new RequestBookingCreateDto();
+        requestDto.setItemId(itemId);
+        requestDto.setStart(start);
+        requestDto.setEnd(end);
+
+        User booker = new User();
+        booker.setId(userId);
+
+        User owner = new User();
+        owner.setId(2L);
+
+        Item item = new Item();
+        item.setId(itemId);
+        item.setAvailable(true);
+        item.setUser(owner);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.overlaps(itemId, start, end)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> bookingService.createBooking(requestDto, userId));
+        verify(itemRepository, never()).lockById(anyLong());
+        verify(bookingRepository, never()).existsOverlapping(anyLong(), any(), any(), any());
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    @Test
+    void createBooking_WhenDatabaseHasOverlap_ShouldReloadIndexAndThrow() {
+
+        Long userId = 1L;
+        Long itemId = 1L;
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = LocalDateTime.now().plusDays(2);
+
+        RequestBookingCreateDto requestDto = new RequestBookingCreateDto();
+        requestDto.setItemId(itemId);
+        requestDto.setStart(start);
+        requestDto.setEnd(end);
+
+        User booker = new User();
+        booker.setId(userId);
+
+        User owner = new User();
+        owner.setId(2L);
+
+        Item item = new Item();
+        item.setId(itemId);
+        item.setAvailable(true);
+        item.setUser(owner);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(booker));
+        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(bookingIntervalIndex.overlaps(itemId, start, end)).thenReturn(false);
+        when(bookingRepository.existsOverlapping(itemId, start, end, BookingIntervalIndex.ACTIVE_STATUSES)).thenReturn(true);
+
+        assertThrows(ValidationException.class, () -> bookingService.createBooking(requestDto, userId));
+        verify(itemRepository, times(1)).lockById(itemId);
+        verify(bookingIntervalIndex, times(1)).reload(itemId);
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -180,29 +267,20 @@ class BookingServiceImplTest {
         Long bookingId = 1L;
         boolean approved = true;
 
-        User owner = new User();
-        owner.setId(userId);
+        BookingView view = bookingView(bookingId, BookingStatus.APPROVED, userId);
 
-        Item item = new Item();
-        item.setUser(owner);
-
-        Booking booking = new Booking();
-        booking.setId(bookingId);
-        booking.setStatus(BookingStatus.WAITING);
-        booking.setItem(item);
-
-        Booking updatedBooking = new Booking();
-        updatedBooking.setId(bookingId);
-        updatedBooking.setStatus(BookingStatus.APPROVED);
-
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(updatedBooking);
+        when(bookingRepository.updateWaitingStatus(bookingId, userId, BookingStatus.APPROVED)).thenReturn(1);
+        when(bookingRepository.findViewById(bookingId)).thenReturn(Optional.of(view));
 
         BookingCreateDto result = bookingService.updateBookingStatus(userId, bookingId, approved);
 
         assertNotNull(result);
-        verify(bookingRepository, times(1)).findById(bookingId);
-        verify(bookingRepository, times(1)).save(booking);
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
+        assertEquals(view.getItemId(), result.getItem().getId());
+        assertEquals(view.getBookerId(), result.getBooker().getId());
+        verify(bookingRepository, never()).findById(any());
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingIntervalIndex, never()).remove(any(), any());
     }
 
     @Test
@@ -211,29 +289,17 @@ class BookingServiceImplTest {
         Long bookingId = 1L;
         boolean approved = false;
 
-        User owner = new User();
-        owner.setId(userId);
-
-        Item item = new Item();
-        item.setUser(owner);
-
-        Booking booking = new Booking();
-        booking.setId(bookingId);
-        booking.setStatus(BookingStatus.WAITING);
-        booking.setItem(item);
+        BookingView view = bookingView(bookingId, BookingStatus.REJECTED, userId);
 
-        Booking updatedBooking = new Booking();
-        updatedBooking.setId(bookingId);
-        updatedBooking.setStatus(BookingStatus.REJECTED);
-
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(updatedBooking);
+        when(bookingRepository.updateWaitingStatus(bookingId, userId, BookingStatus.REJECTED)).thenReturn(1);
+        when(bookingRepository.findViewById(bookingId)).thenReturn(Optional.of(view));
 
         BookingCreateDto result = bookingService.updateBookingStatus(userId, bookingId, approved);
 
         assertNotNull(result);
-        verify(bookingRepository, times(1)).findById(bookingId);
-        verify(bookingRepository, times(1)).save(booking);
+        assertEquals(BookingStatus.REJECTED, result.getStatus());
+        verify(bookingIntervalIndex, times(1)).remove(view.getItemId(), bookingId);
+        verify(bookingRepository, never()).save(any(Booking.class));
     }
 
     @Test
@@ -243,10 +309,10 @@ class BookingServiceImplTest {
         Long bookingId = 999L;
         boolean approved = true;
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.empty());
+        when(bookingRepository.updateWaitingStatus(bookingId, userId, BookingStatus.APPROVED)).thenReturn(0);
+        when(bookingRepository.findViewById(bookingId)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> bookingService.updateBookingStatus(userId, bookingId, approved));
-        verify(bookingRepository, times(1)).findById(bookingId);
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -257,21 +323,13 @@ class BookingServiceImplTest {
         Long bookingId = 1L;
         boolean approved = true;
 
-        User owner = new User();
-        owner.setId(userId);
-
-        Item item = new Item();
-        item.setUser(owner);
-
-        Booking booking = new Booking();
-        booking.setId(bookingId);
-        booking.setStatus(BookingStatus.APPROVED);
-        booking.setItem(item);
-
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.updateWaitingStatus(bookingId, userId, BookingStatus.APPROVED)).thenReturn(0);
+        when(bookingRepository.findViewById(bookingId))
+                .thenReturn(Optional.of(bookingView(bookingId, BookingStatus.APPROVED, userId)));
 
-        assertThrows(ValidationException.class, () -> bookingService.updateBookingStatus(userId, bookingId, approved));
-        verify(bookingRepository, times(1)).findById(bookingId);
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bookingService.updateBookingStatus(userId, bookingId, approved));
+        assertEquals("Статус можно изменить только для заявок в статусе WAITING", exception.getMessage());
         verify(bookingRepository, never()).save(any(Booking.class));
     }
 
@@ -282,25 +340,20 @@ class BookingServiceImplTest {
         Long bookingId = 1L;
         boolean approved = true;
 
-        User owner = new User();
-        owner.setId(2L);
-
-        User currentUser = new User();
-        currentUser.setId(userId);
+        when(bookingRepository.updateWaitingStatus(bookingId, userId, BookingStatus.APPROVED)).thenReturn(0);
+        when(bookingRepository.findViewById(bookingId))
+                .thenReturn(Optional.of(bookingView(bookingId, BookingStatus.WAITING, 2L)));
 
-        Item item = new Item();
-        item.setUser(owner);
-
-        Booking booking = new Booking();
-        booking.setId(bookingId);
-        booking.setStatus(BookingStatus.WAITING);
-        booking.setItem(item);
-
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-
-        assertThrows(ValidationException.class, () -> bookingService.updateBookingStatus(userId, bookingId, approved));
-        verify(bookingRepository, times(1)).findById(bookingId);
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bookingService.updateBookingStatus(userId, bookingId, approved));
+        assertEquals("Пользователь не является владельцем предмета!", exception.getMessage());
         verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingIntervalIndex, never()).remove(any(), any());
+    }
+
+    private static BookingView bookingView(Long bookingId, BookingStatus status, Long ownerId) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new BookingView(bookingId, start, start.plusDays(1), status, 10L, "Дрель", ownerId, 3L, "Booker");
     }
 
     @Test
@@ -401,27 +454,124 @@ class BookingServiceImplTest {
 
         Long userId = 1L;
         String state = "ALL";
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
         User user = new User();
         user.setId(userId);
 
-        Booking booking1 = new Booking();
+        BookingHistory booking1 = new BookingHistory();
         booking1.setId(1L);
 
-        Booking booking2 = new Booking();
+        BookingHistory booking2 = new BookingHistory();
         booking2.setId(2L);
 
-        List<Booking> bookings = Arrays.asList(booking1, booking2);
+        List<BookingHistory> bookings = Arrays.asList(booking1, booking2);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_Id(userId, sort)).thenReturn(bookings);
+        when(bookingHistoryRepository.findByBooker_Id(userId, ScrollPosition.offset(), PAGE_SORT, Limit.of(10)))
+                .thenReturn(window(bookings, false));
 
-        List<BookingCreateDto> result = bookingService.getAllBookingsToUser(userId, state);
+        BookingPage result = bookingService.getAllBookingsToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
+        assertEquals(2, result.getBookings().size());
+        assertNull(result.getNextCursor());
         verify(userRepository, times(1)).findById(userId);
-        verify(bookingRepository, times(1)).findByBooker_Id(userId, sort);
+        verify(bookingHistoryRepository, times(1)).findByBooker_Id(userId, ScrollPosition.offset(), PAGE_SORT, Limit.of(10));
+    }
+
+    @Test
+    void getAllBookingsToUser_WithFrom_ShouldSkipFromBookings() {
+
+        Long userId = 1L;
+
+        User user = new User();
+        user.setId(userId);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(bookingHistoryRepository.findByBooker_Id(userId, ScrollPosition.offset(19), PAGE_SORT, Limit.of(10)))
+                .thenReturn(window(List.of(), false));
+
+        BookingPage result = bookingService.getAllBookingsToUser(userId, "ALL", 20, 10, null);
+
+        assertTrue(result.getBookings().isEmpty());
+        verify(bookingHistoryRepository, times(1)).findByBooker_Id(userId, ScrollPosition.offset(19), PAGE_SORT, Limit.of(10));
+    }
+
+    @Test
+    void getAllBookingsToUser_WhenMoreBookingsExist_ShouldReturnCursorOfLastBooking() {
+
+        Long userId = 1L;
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        User user = new User();
+        user.setId(userId);
+
+        BookingHistory booking = new BookingHistory();
+        booking.setId(7L);
+        booking.setStart(start);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(bookingHistoryRepository.findByBooker_Id(userId, ScrollPosition.offset(), PAGE_SORT, Limit.of(1)))
+                .thenReturn(window(List.of(booking), true));
+
+        BookingPage result = bookingService.getAllBookingsToUser(userId, "ALL", 0, 1, null);
+
+        assertNotNull(result.getNextCursor());
+        assertEquals(ScrollPosition.forward(Map.of("start", start, "id", 7L)), BookingCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getAllBookingsToUser_WithCursor_ShouldContinueFromKeyset() {
+
+        Long userId = 1L;
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        User user = new User();
+        user.setId(userId);
+
+        BookingHistory last = new BookingHistory();
+        last.setId(7L);
+        last.setStart(start);
+        String cursor = BookingCursor.encode(last);
+        ScrollPosition keyset = ScrollPosition.forward(Map.of("start", start, "id", 7L));
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(bookingHistoryRepository.findByBooker_Id(userId, keyset, PAGE_SORT, Limit.of(10)))
+                .thenReturn(window(List.of(), false));
+
+        BookingPage result = bookingService.getAllBookingsToUser(userId, "ALL", 30, 10, cursor);
+
+        assertTrue(result.getBookings().isEmpty());
+        verify(bookingHistoryRepository, times(1)).findByBooker_Id(userId, keyset, PAGE_SORT, Limit.of(10));
+    }
+
+    @Test
+    void getAllBookingsToUser_WithBrokenCursor_ShouldThrowException() {
+
+        Long userId = 1L;
+
+        User user = new User();
+        user.setId(userId);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertThrows(ValidationException.class,
+                () -> bookingService.getAllBookingsToUser(userId, "ALL", 0, 10, "not-a-cursor"));
+        verify(bookingHistoryRepository, never()).findByBooker_Id(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void getAllBookingsToUser_WithInvalidSize_ShouldThrowException() {
+
+        Long userId = 1L;
+
+        User user = new User();
+        user.setId(userId);
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertThrows(ValidationException.class, () -> bookingService.getAllBookingsToUser(userId, "ALL", 0, 0, null));
+        assertThrows(ValidationException.class, () -> bookingService.getAllBookingsToUser(userId, "ALL", -1, 10, null));
     }
 
     @Test
@@ -429,7 +579,6 @@ class BookingServiceImplTest {
 
         Long userId = 1L;
         String state = "WAITING";
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
         User user = new User();
         user.setId(userId);
@@ -441,13 +590,16 @@ class BookingServiceImplTest {
         List<Booking> bookings = Arrays.asList(booking1);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.WAITING, sort)).thenReturn(bookings);
+        when(bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.WAITING, ScrollPosition.offset(), PAGE_SORT, Limit.of(10)))
+                .thenReturn(window(bookings, false));
 
-        List<BookingCreateDto> result = bookingService.getAllBookingsToUser(userId, state);
+        BookingPage result = bookingService.getAllBookingsToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
+        assertEquals(1, result.getBookings().size());
         verify(userRepository, times(1)).findById(userId);
-        verify(bookingRepository, times(1)).findByBooker_IdAndStatus(userId, BookingStatus.WAITING, sort);
+        verify(bookingRepository, times(1))
+                .findByBooker_IdAndStatus(userId, BookingStatus.WAITING, ScrollPosition.offset(), PAGE_SORT, Limit.of(10));
     }
 
     @Test
@@ -455,25 +607,26 @@ class BookingServiceImplTest {
 
         Long userId = 1L;
         String state = "REJECTED";
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
         User user = new User();
         user.setId(userId);
 
-        Booking booking1 = new Booking();
+        BookingHistory booking1 = new BookingHistory();
         booking1.setId(1L);
         booking1.setStatus(BookingStatus.REJECTED);
 
-        List<Booking> bookings = Arrays.asList(booking1);
+        List<BookingHistory> bookings = Arrays.asList(booking1);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.REJECTED, sort)).thenReturn(bookings);
+        when(bookingHistoryRepository.findByBooker_IdAndStatus(userId, BookingStatus.REJECTED, ScrollPosition.offset(), PAGE_SORT, Limit.of(10)))
+                .thenReturn(window(bookings, false));
 
-        List<BookingCreateDto> result = bookingService.getAllBookingsToUser(userId, state);
+        BookingPage result = bookingService.getAllBookingsToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
         verify(userRepository, times(1)).findById(userId);
-        verify(bookingRepository, times(1)).findByBooker_IdAndStatus(userId, BookingStatus.REJECTED, sort);
+        verify(bookingHistoryRepository, times(1))
+                .findByBooker_IdAndStatus(userId, BookingStatus.REJECTED, ScrollPosition.offset(), PAGE_SORT, Limit.of(10));
     }
 
     @Test
@@ -491,13 +644,16 @@ class BookingServiceImplTest {
         List<Booking> bookings = Arrays.asList(booking1);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findCurrentByBooker(eq(userId), any(LocalDateTime.class))).thenReturn(bookings);
+        when(bookingRepository.findByBooker_IdAndStartLessThanEqualAndEndGreaterThanEqual(eq(userId),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10))))
+                .thenReturn(window(bookings, false));
 
-        List<BookingCreateDto> result = bookingService.getAllBookingsToUser(userId, state);
+        BookingPage result = bookingService.getAllBookingsToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
         verify(userRepository, times(1)).findById(userId);
-        verify(bookingRepository, times(1)).findCurrentByBooker(eq(userId), any(LocalDateTime.class));
+        verify(bookingRepository, times(1)).findByBooker_IdAndStartLessThanEqualAndEndGreaterThanEqual(eq(userId),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10)));
     }
 
     @Test
@@ -505,24 +661,25 @@ class BookingServiceImplTest {
 
         Long userId = 1L;
         String state = "PAST";
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
         User user = new User();
         user.setId(userId);
 
-        Booking booking1 = new Booking();
+        BookingHistory booking1 = new BookingHistory();
         booking1.setId(1L);
 
-        List<Booking> bookings = Arrays.asList(booking1);
+        List<BookingHistory> bookings = Arrays.asList(booking1);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_IdAndEndBefore(eq(userId), any(LocalDateTime.class), eq(sort))).thenReturn(bookings);
+        when(bookingHistoryRepository.findByBooker_IdAndEndBefore(eq(userId), any(LocalDateTime.class),
+                eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10)))).thenReturn(window(bookings, false));
 
-        List<BookingCreateDto> result = bookingService.getAllBookingsToUser(userId, state);
+        BookingPage result = bookingService.getAllBookingsToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
         verify(userRepository, times(1)).findById(userId);
-        verify(bookingRepository, times(1)).findByBooker_IdAndEndBefore(eq(userId), any(LocalDateTime.class), eq(sort));
+        verify(bookingHistoryRepository, times(1)).findByBooker_IdAndEndBefore(eq(userId), any(LocalDateTime.class),
+                eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10)));
     }
 
     @Test
@@ -530,7 +687,6 @@ class BookingServiceImplTest {
 
         Long userId = 1L;
         String state = "FUTURE";
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
         User user = new User();
         user.setId(userId);
@@ -541,13 +697,15 @@ class BookingServiceImplTest {
         List<Booking> bookings = Arrays.asList(booking1);
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBooker_IdAndStartAfter(eq(userId), any(LocalDateTime.class), eq(sort))).thenReturn(bookings);
+        when(bookingRepository.findByBooker_IdAndStartAfter(eq(userId), any(LocalDateTime.class),
+                eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10)))).thenReturn(window(bookings, false));
 
-        List<BookingCreateDto> result = bookingService.getAllBookingsToUser(userId, state);
+        BookingPage result = bookingService.getAllBookingsToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
         verify(userRepository, times(1)).findById(userId);
-        verify(bookingRepository, times(1)).findByBooker_IdAndStartAfter(eq(userId), any(LocalDateTime.class), eq(sort));
+        verify(bookingRepository, times(1)).findByBooker_IdAndStartAfter(eq(userId), any(LocalDateTime.class),
+                eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10)));
     }
 
     @Test
@@ -561,7 +719,7 @@ class BookingServiceImplTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
 
-        assertThrows(ValidationException.class, () -> bookingService.getAllBookingsToUser(userId, state));
+        assertThrows(ValidationException.class, () -> bookingService.getAllBookingsToUser(userId, state, 0, 10, null));
         verify(userRepository, times(1)).findById(userId);
     }
 
@@ -573,9 +731,9 @@ class BookingServiceImplTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> bookingService.getAllBookingsToUser(userId, state));
+        assertThrows(NotFoundException.class, () -> bookingService.getAllBookingsToUser(userId, state, 0, 10, null));
         verify(userRepository, times(1)).findById(userId);
-        verify(bookingRepository, never()).findByBooker_Id(anyLong(), any(Sort.class));
+        verify(bookingHistoryRepository, never()).findByBooker_Id(anyLong(), any(), any(), any());
     }
 
     @Test
@@ -583,32 +741,50 @@ class BookingServiceImplTest {
 
         Long userId = 1L;
         String state = "ALL";
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
-
-        Item item1 = new Item();
-        item1.setId(1L);
-
-        Item item2 = new Item();
-        item2.setId(2L);
 
-        List<Item> userItems = Arrays.asList(item1, item2);
-
-        Booking booking1 = new Booking();
+        BookingHistory booking1 = new BookingHistory();
         booking1.setId(1L);
 
-        Booking booking2 = new Booking();
+        BookingHistory booking2 = new BookingHistory();
         booking2.setId(2L);
 
-        List<Booking> bookings = Arrays.asList(booking1, booking2);
+        List<BookingHistory> bookings = Arrays.asList(booking1, booking2);
 
-        when(itemRepository.findAllByUser_Id(userId)).thenReturn(userItems);
-        when(bookingRepository.findByItem_User_Id(userId, sort)).thenReturn(bookings);
+        when(itemRepository.existsByUser_Id(userId)).thenReturn(true);
+        when(bookingHistoryRepository.findByOwnerId(userId, ScrollPosition.offset(), PAGE_SORT, Limit.of(10)))
+                .thenReturn(window(bookings, false));
 
-        List<BookingCreateDto> result = bookingService.getAllItemBookingToUser(userId, state);
+        BookingPage result = bookingService.getAllItemBookingToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
-        verify(itemRepository, times(1)).findAllByUser_Id(userId);
-        verify(bookingRepository, times(1)).findByItem_User_Id(userId, sort);
+        assertEquals(2, result.getBookings().size());
+        verify(itemRepository, times(1)).existsByUser_Id(userId);
+        verify(bookingHistoryRepository, times(1)).findByOwnerId(userId, ScrollPosition.offset(), PAGE_SORT, Limit.of(10));
+    }
+
+    @Test
+    void getAllItemBookingToUser_WithCursor_ShouldContinueFromKeyset() {
+
+        Long userId = 1L;
+        LocalDateTime start = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+        Item item = new Item();
+        item.setId(1L);
+
+        BookingHistory last = new BookingHistory();
+        last.setId(3L);
+        last.setStart(start);
+        ScrollPosition keyset = ScrollPosition.forward(Map.of("start", start, "id", 3L));
+
+        when(itemRepository.existsByUser_Id(userId)).thenReturn(true);
+        when(bookingHistoryRepository.findByOwnerId(userId, keyset, PAGE_SORT, Limit.of(5)))
+                .thenReturn(window(List.of(), false));
+
+        BookingPage result = bookingService.getAllItemBookingToUser(userId, "ALL", 0, 5, BookingCursor.encode(last));
+
+        assertTrue(result.getBookings().isEmpty());
+        assertNull(result.getNextCursor());
+        verify(bookingHistoryRepository, times(1)).findByOwnerId(userId, keyset, PAGE_SORT, Limit.of(5));
     }
 
     @Test
@@ -617,11 +793,11 @@ class BookingServiceImplTest {
         Long userId = 1L;
         String state = "ALL";
 
-        when(itemRepository.findAllByUser_Id(userId)).thenReturn(Arrays.asList());
+        when(itemRepository.existsByUser_Id(userId)).thenReturn(false);
 
-        assertThrows(NotFoundException.class, () -> bookingService.getAllItemBookingToUser(userId, state));
-        verify(itemRepository, times(1)).findAllByUser_Id(userId);
-        verify(bookingRepository, never()).findByItem_User_Id(anyLong(), any(Sort.class));
+        assertThrows(NotFoundException.class, () -> bookingService.getAllItemBookingToUser(userId, state, 0, 10, null));
+        verify(itemRepository, times(1)).existsByUser_Id(userId);
+        verify(bookingHistoryRepository, never()).findByOwnerId(anyLong(), any(), any(), any());
     }
 
     @Test
@@ -633,10 +809,10 @@ class BookingServiceImplTest {
         Item item = new Item();
         item.setId(1L);
 
-        when(itemRepository.findAllByUser_Id(userId)).thenReturn(Arrays.asList(item));
+        when(itemRepository.existsByUser_Id(userId)).thenReturn(true);
 
-        assertThrows(ValidationException.class, () -> bookingService.getAllItemBookingToUser(userId, state));
-        verify(itemRepository, times(1)).findAllByUser_Id(userId);
+        assertThrows(ValidationException.class, () -> bookingService.getAllItemBookingToUser(userId, state, 0, 10, null));
+        verify(itemRepository, times(1)).existsByUser_Id(userId);
     }
 
     @Test
@@ -644,7 +820,6 @@ class BookingServiceImplTest {
 
         Long userId = 1L;
         String state = "WAITING";
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
         Item item = new Item();
         item.setId(1L);
@@ -652,14 +827,16 @@ class BookingServiceImplTest {
         Booking booking = new Booking();
         booking.setId(1L);
 
-        when(itemRepository.findAllByUser_Id(userId)).thenReturn(Arrays.asList(item));
-        when(bookingRepository.findByItem_User_IdAndStatus(userId, BookingStatus.WAITING, sort)).thenReturn(Arrays.asList(booking));
+        when(itemRepository.existsByUser_Id(userId)).thenReturn(true);
+        when(bookingRepository.findByOwnerIdAndStatus(userId, BookingStatus.WAITING, ScrollPosition.offset(), PAGE_SORT, Limit.of(10)))
+                .thenReturn(window(Arrays.asList(booking), false));
 
-        List<BookingCreateDto> result = bookingService.getAllItemBookingToUser(userId, state);
+        BookingPage result = bookingService.getAllItemBookingToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
-        verify(itemRepository, times(1)).findAllByUser_Id(userId);
-        verify(bookingRepository, times(1)).findByItem_User_IdAndStatus(userId, BookingStatus.WAITING, sort);
+        verify(itemRepository, times(1)).existsByUser_Id(userId);
+        verify(bookingRepository, times(1))
+                .findByOwnerIdAndStatus(userId, BookingStatus.WAITING, ScrollPosition.offset(), PAGE_SORT, Limit.of(10));
     }
 
     @Test
@@ -667,22 +844,23 @@ class BookingServiceImplTest {
 
         Long userId = 1L;
         String state = "REJECTED";
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
         Item item = new Item();
         item.setId(1L);
 
-        Booking booking = new Booking();
+        BookingHistory booking = new BookingHistory();
         booking.setId(1L);
 
-        when(itemRepository.findAllByUser_Id(userId)).thenReturn(Arrays.asList(item));
-        when(bookingRepository.findByItem_User_IdAndStatus(userId, BookingStatus.REJECTED, sort)).thenReturn(Arrays.asList(booking));
+        when(itemRepository.existsByUser_Id(userId)).thenReturn(true);
+        when(bookingHistoryRepository.findByOwnerIdAndStatus(userId, BookingStatus.REJECTED, ScrollPosition.offset(), PAGE_SORT, Limit.of(10)))
+                .thenReturn(window(Arrays.asList(booking), false));
 
-        List<BookingCreateDto> result = bookingService.getAllItemBookingToUser(userId, state);
+        BookingPage result = bookingService.getAllItemBookingToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
-        verify(itemRepository, times(1)).findAllByUser_Id(userId);
-        verify(bookingRepository, times(1)).findByItem_User_IdAndStatus(userId, BookingStatus.REJECTED, sort);
+        verify(itemRepository, times(1)).existsByUser_Id(userId);
+        verify(bookingHistoryRepository, times(1))
+                .findByOwnerIdAndStatus(userId, BookingStatus.REJECTED, ScrollPosition.offset(), PAGE_SORT, Limit.of(10));
     }
 
     @Test
@@ -697,14 +875,17 @@ class BookingServiceImplTest {
         Booking booking = new Booking();
         booking.setId(1L);
 
-        when(itemRepository.findAllByUser_Id(userId)).thenReturn(Arrays.asList(item));
-        when(bookingRepository.findByItemUser(eq(userId), any(LocalDateTime.class))).thenReturn(Arrays.asList(booking));
+        when(itemRepository.existsByUser_Id(userId)).thenReturn(true);
+        when(bookingRepository.findByOwnerIdAndStartLessThanEqualAndEndGreaterThanEqual(eq(userId),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10))))
+                .thenReturn(window(Arrays.asList(booking), false));
 
-        List<BookingCreateDto> result = bookingService.getAllItemBookingToUser(userId, state);
+        BookingPage result = bookingService.getAllItemBookingToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
-        verify(itemRepository, times(1)).findAllByUser_Id(userId);
-        verify(bookingRepository, times(1)).findByItemUser(eq(userId), any(LocalDateTime.class));
+        verify(itemRepository, times(1)).existsByUser_Id(userId);
+        verify(bookingRepository, times(1)).findByOwnerIdAndStartLessThanEqualAndEndGreaterThanEqual(eq(userId),
+                any(LocalDateTime.class), any(LocalDateTime.class), eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10)));
     }
 
     @Test
@@ -712,22 +893,23 @@ class BookingServiceImplTest {
 
         Long userId = 1L;
         String state = "PAST";
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
         Item item = new Item();
         item.setId(1L);
 
-        Booking booking = new Booking();
+        BookingHistory booking = new BookingHistory();
         booking.setId(1L);
 
-        when(itemRepository.findAllByUser_Id(userId)).thenReturn(Arrays.asList(item));
-        when(bookingRepository.findByItem_User_IdAndEndBefore(eq(userId), any(LocalDateTime.class), eq(sort))).thenReturn(Arrays.asList(booking));
+        when(itemRepository.existsByUser_Id(userId)).thenReturn(true);
+        when(bookingHistoryRepository.findByOwnerIdAndEndBefore(eq(userId), any(LocalDateTime.class),
+                eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10)))).thenReturn(window(Arrays.asList(booking), false));
 
-        List<BookingCreateDto> result = bookingService.getAllItemBookingToUser(userId, state);
+        BookingPage result = bookingService.getAllItemBookingToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
-        verify(itemRepository, times(1)).findAllByUser_Id(userId);
-        verify(bookingRepository, times(1)).findByItem_User_IdAndEndBefore(eq(userId), any(LocalDateTime.class), eq(sort));
+        verify(itemRepository, times(1)).existsByUser_Id(userId);
+        verify(bookingHistoryRepository, times(1)).findByOwnerIdAndEndBefore(eq(userId), any(LocalDateTime.class),
+                eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10)));
     }
 
     @Test
@@ -735,7 +917,6 @@ class BookingServiceImplTest {
 
         Long userId = 1L;
         String state = "FUTURE";
-        Sort sort = Sort.by(Sort.Direction.DESC, "start");
 
         Item item = new Item();
         item.setId(1L);
@@ -743,13 +924,19 @@ class BookingServiceImplTest {
         Booking booking = new Booking();
         booking.setId(1L);
 
-        when(itemRepository.findAllByUser_Id(userId)).thenReturn(Arrays.asList(item));
-        when(bookingRepository.findByItem_User_IdAndStartAfter(eq(userId), any(LocalDateTime.class), eq(sort))).thenReturn(Arrays.asList(booking));
+        when(itemRepository.existsByUser_Id(userId)).thenReturn(true);
+        when(bookingRepository.findByOwnerIdAndStartAfter(eq(userId), any(LocalDateTime.class),
+                eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10)))).thenReturn(window(Arrays.asList(booking), false));
 
-        List<BookingCreateDto> result = bookingService.getAllItemBookingToUser(userId, state);
+        BookingPage result = bookingService.getAllItemBookingToUser(userId, state, 0, 10, null);
 
         assertNotNull(result);
-        verify(itemRepository, times(1)).findAllByUser_Id(userId);
-        verify(bookingRepository, times(1)).findByItem_User_IdAndStartAfter(eq(userId), any(LocalDateTime.class), eq(sort));
+        verify(itemRepository, times(1)).existsByUser_Id(userId);
+        verify(bookingRepository, times(1)).findByOwnerIdAndStartAfter(eq(userId), any(LocalDateTime.class),
+                eq(ScrollPosition.offset()), eq(PAGE_SORT), eq(Limit.of(10)));
+    }
+
+    private static <T> Window<T> window(List<T> bookings, boolean hasNext) {
+        return Window.from(bookings, ScrollPosition::offset, hasNext);
     }
 }
@@ -0,0 +1,204 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionAdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ConnectionAdmissionFilter filter =
+            new ConnectionAdmissionFilter(1, Duration.ofMillis(100), meterRegistry);
+
+    @Test
+    void doFilter_WhenNoPermitFreedInTime_ShouldAnswer503() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MockHttpServletResponse> holder = executor.submit(() -> call("/users/1", (request, response) -> {
+                entered.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            MockHttpServletResponse rejected = call("/users/2", new MockFilterChain());
+            release.countDown();
+
+            assertEquals(503, rejected.getStatus());
+            assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+            assertEquals(200, holder.get().getStatus());
+            assertEquals(1, meterRegistry.get("shareit.db.admission.rejected").counter().count());
+        }
+        assertEquals(200, call("/users/2", new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void doFilter_ShouldLetWaitingRequestInWhenPermitIsReleased() throws Exception {
+        SimpleMeterRegistry patientRegistry = new SimpleMeterRegistry();
+        ConnectionAdmissionFilter patient = new ConnectionAdmissionFilter(1, Duration.ofSeconds(5), patientRegistry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> call(patient, "/users/1", (request, response) -> {
+                entered.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            Future<MockHttpServletResponse> waiting = executor.submit(() -> call(patient, "/users/2",
+                    new MockFilterChain()));
+            while (patientRegistry.get("shareit.db.admission.waiting").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals(200, waiting.get(5, TimeUnit.SECONDS).getStatus());
+        }
+    }
+
+    @Test
+    void doFilter_ShouldNotLimitActuator() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.submit(() -> call("/users/1", (request, response) -> {
+                entered.countDown();
+                awaitQuietly(release);
+            }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            assertEquals(200, call("/actuator/health", new MockFilterChain()).getStatus());
+            release.countDown();
+        }
+    }
+
+    @Test
+    void poolSize_ShouldBeTakenFromHikari() throws Exception {
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setMaximumPoolSize(7);
+
+            assertEquals(7, ConnectionAdmissionConfig.poolSize(dataSource));
+        }
+    }
+
+    @Test
+    void poolSize_WhenNotConfigured_ShouldMatchHikariDefault() throws Exception {
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            assertEquals(10, ConnectionAdmissionConfig.poolSize(dataSource));
+        }
+    }
+
+    @Test
+    void poolSize_WithReplicas_ShouldAddReplicaPools() throws Exception {
+        try (HikariDataSource primary = new HikariDataSource();
+             ReplicaDataSource replicas = replicas(primary)) {
+            primary.setMaximumPoolSize(7);
+
+            assertEquals(13, ConnectionAdmissionConfig.poolSize(new LazyConnectionDataSourceProxy(replicas)));
+        }
+    }
+
+    @Test
+    void filter_WhenAllReplicasDown_ShouldLimitReadsByPrimaryPool() throws Exception {
+        try (HikariDataSource primary = new HikariDataSource();
+             ReplicaDataSource replicas = replicas(primary)) {
+            primary.setMaximumPoolSize(1);
+            ConnectionAdmissionFilter limited = ConnectionAdmissionConfig.filter(
+                    new LazyConnectionDataSourceProxy(replicas), 0, Duration.ofMillis(100), meterRegistry);
+
+            assertEquals(503, callWhileHeld(limited, "GET", "GET"));
+        }
+    }
+
+    @Test
+    void filter_WithHealthyReplicas_ShouldLimitOnlyPrimaryBoundRequests() throws Exception {
+        try (HikariDataSource primary = new HikariDataSource();
+             ReplicaDataSource replicas = replicas(primary)) {
+            primary.setMaximumPoolSize(1);
+            replicas.checkReplicas();
+            ConnectionAdmissionFilter limited = ConnectionAdmissionConfig.filter(
+                    new LazyConnectionDataSourceProxy(replicas), 0, Duration.ofMillis(100), meterRegistry);
+
+            assertEquals(503, callWhileHeld(limited, "POST", "PATCH"));
+            assertEquals(200, callWhileHeld(limited, "POST", "GET"));
+        }
+    }
+
+    /**
+     * Две реплики по 3 соединения на H2 в памяти, до checkReplicas обе считаются недоступными.
+     */
+    private ReplicaDataSource replicas(HikariDataSource primary) {
+        ReplicaProperties properties = new ReplicaProperties();
+        properties.setPoolSize(3);
+        properties.setLagQuery("");
+        for (int i = 0; i < 2; i++) {
+            ReplicaProperties.Node node = new ReplicaProperties.Node();
+            node.setUrl("jdbc:h2:mem:admission-replica-" + i);
+            properties.getNodes().add(node);
+        }
+        return new ReplicaDataSource(primary, new ReadYourWrites(Duration.ZERO, 1), properties, meterRegistry);
+    }
+
+    /**
+     * Статус второго запроса, пока первый держит место в фильтре.
+     */
+    private static int callWhileHeld(ConnectionAdmissionFilter filter, String heldMethod, String method)
+            throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MockHttpServletResponse> holder = executor.submit(() -> call(filter, heldMethod, "/items/1",
+                    (request, response) -> {
+                        entered.countDown();
+                        awaitQuietly(release);
+                    }));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            int status = call(filter, method, "/items/2", new MockFilterChain()).getStatus();
+            release.countDown();
+
+            assertEquals(200, holder.get().getStatus());
+            return status;
+        }
+    }
+
+    private MockHttpServletResponse call(String uri, FilterChain chain) throws Exception {
+        return call(filter, uri, chain);
+    }
+
+    private static MockHttpServletResponse call(ConnectionAdmissionFilter filter, String uri, FilterChain chain)
+            throws Exception {
+        return call(filter, "GET", uri, chain);
+    }
+
+    private static MockHttpServletResponse call(ConnectionAdmissionFilter filter, String method, String uri,
+                                                FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
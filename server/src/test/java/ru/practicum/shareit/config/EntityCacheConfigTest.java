@@ -0,0 +1,138 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Повторное чтение User, Item и ItemRequest по id в новой транзакции не должно обращаться к БД.
+ * Каждый вызов репозитория выполняется в собственной транзакции, как в сервисах.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn",
+        "shareit.cache.regions.users.maximum-size=5",
+        "shareit.cache.regions.users.expire-after-write=1m"
+})
+@Import(EntityCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityCacheConfigTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager entityCacheManager;
+
+    private Statistics statistics;
+
+    private User owner;
+
+    private Item item;
+
+    private ItemRequest request;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = userRepository.save(new User(null, "owner", "owner@mail.ru"));
+        request = new ItemRequest();
+        request.setDescription("Нужна дрель");
+        request.setRequestor(owner);
+        request.setCreated(LocalDateTime.now());
+        request = itemRequestRepository.save(request);
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Аккумуляторная дрель");
+        item.setAvailable(true);
+        item.setUser(owner);
+        item.setRequest(request);
+        item = itemRepository.save(item);
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findById_ShouldBeServedFromSecondLevelCacheAfterFirstLoad() {
+        load();
+        statistics.clear();
+
+        load();
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertHit("users");
+        assertHit("items");
+        assertHit("item-requests");
+    }
+
+    @Test
+    void save_ShouldRefreshCachedEntity() {
+        load();
+        User user = userRepository.findById(owner.getId()).orElseThrow();
+        user.setName("renamed");
+        userRepository.save(user);
+        statistics.clear();
+
+        assertEquals("renamed", userRepository.findById(owner.getId()).orElseThrow().getName());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void regions_ShouldUseConfiguredLimits() {
+        Cache<?, ?> users = entityCacheManager.getCache("users").unwrap(Cache.class);
+
+        assertEquals(5, users.policy().eviction().orElseThrow().getMaximum());
+        assertEquals(Duration.ofMinutes(1), users.policy().expireAfterWrite().orElseThrow().getExpiresAfter());
+        assertNotNull(entityCacheManager.getCache("items"));
+        assertNotNull(entityCacheManager.getCache("item-requests"));
+    }
+
+    private void load() {
+        userRepository.findById(owner.getId()).orElseThrow();
+        itemRepository.findById(item.getId()).orElseThrow();
+        itemRequestRepository.findById(request.getId()).orElseThrow();
+    }
+
+    private void assertHit(String region) {
+        CacheRegionStatistics regionStatistics = statistics.getDomainDataRegionStatistics(region);
+        assertEquals(1, regionStatistics.getHitCount(), region);
+        assertEquals(0, regionStatistics.getMissCount(), region);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.GetItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class EtagConfigTest {
+
+    private final ItemService itemService = mock(ItemService.class);
+
+    private final GetItemDto item = new GetItemDto();
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        item.setId(1L);
+        item.setName("Дрель");
+        when(itemService.getItem(1L, 1L)).thenReturn(item);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ItemController(itemService))
+                .addFilters(new EtagConfig().etagFilter().getFilter())
+                .build();
+    }
+
+    @Test
+    void get_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutBody() throws Exception {
+        MvcResult first = mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        MvcResult second = mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn();
+
+        assertEquals(0, second.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void get_WhenResponseChanged_ShouldReturnNewBodyAndEtag() throws Exception {
+        String etag = mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 1L))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        item.setName("Дрель обновленная");
+
+        mockMvc.perform(get("/items/1").header("X-Sharer-User-Id", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+}
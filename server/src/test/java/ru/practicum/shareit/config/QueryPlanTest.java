@@ -0,0 +1,221 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Планы запросов репозиториев на схеме из миграций Flyway и заполненной БД: ни один запрос не должен читать
+ * USERS, ITEMS, BOOKINGS, BOOKINGS_ARCHIVE, COMMENTS или ITEM_REQUESTS полным просмотром таблицы. SQL перехватывается
+ * StatementInspector и разбирается через EXPLAIN той же H2, на которой работают тесты.
+ * Не проверяются searchItem (LIKE '%text%' не использует B-дерево, поиск обслуживает индекс в памяти)
+ * и findAllByRequestor_IdNot (условие "не равно" по смыслу читает почти все запросы).
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false"
+})
+class QueryPlanTest {
+
+    private static final int USERS = 1_000;
+
+    private static final int REQUESTS = 2_000;
+
+    private static final int ITEMS = 10_000;
+
+    private static final int BOOKINGS = 100_000;
+
+    private static final int COMMENTS = 20_000;
+
+    private static final Pattern TABLE_SCAN =
+            Pattern.compile("PUBLIC\\.(USERS|ITEMS|BOOKINGS|BOOKINGS_ARCHIVE|COMMENTS|ITEM_REQUESTS)\\.tableScan");
+
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    private static final Limit LIMIT = Limit.of(10);
+
+    private static final List<BookingStatus> ACTIVE = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private static final List<String> statements = new ArrayList<>();
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingHistoryRepository bookingHistoryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().withNano(0);
+        execute("INSERT INTO USERS (id, name, email) " +
+                "SELECT x, 'user' || x, 'user' || x || '@mail.ru' FROM SYSTEM_RANGE(1, " + USERS + ")");
+        execute("INSERT INTO ITEM_REQUESTS (id, description, requestor_id, created) " +
+                "SELECT x, 'request' || x, MOD(x, " + USERS + ") + 1, DATEADD(MINUTE, -x, LOCALTIMESTAMP) " +
+                "FROM SYSTEM_RANGE(1, " + REQUESTS + ")");
+        execute("INSERT INTO ITEMS (id, name, description, available, user_id, request_id) " +
+                "SELECT x, 'item' || x, 'description' || x, TRUE, MOD(x, " + USERS + ") + 1, " +
+                "CASE WHEN MOD(x, 5) = 0 THEN MOD(x, " + REQUESTS + ") + 1 END " +
+                "FROM SYSTEM_RANGE(1, " + ITEMS + ")");
+        execute("INSERT INTO BOOKINGS (id, start_date, end_date, item_id, owner_id, booker_id, status) " +
+                "SELECT x, DATEADD(HOUR, x - " + BOOKINGS / 2 + ", LOCALTIMESTAMP), " +
+                "DATEADD(HOUR, x - " + BOOKINGS / 2 + " + 2, LOCALTIMESTAMP), " +
+                "MOD(x, " + ITEMS + ") + 1, MOD(MOD(x, " + ITEMS + ") + 1, " + USERS + ") + 1, " +
+                "MOD(x * 7, " + USERS + ") + 1, " +
+                "CASE MOD(x, 4) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END " +
+                "FROM SYSTEM_RANGE(1, " + BOOKINGS + ")");
+        execute("INSERT INTO BOOKINGS_ARCHIVE (id, start_date, end_date, item_id, owner_id, booker_id, status) " +
+                "SELECT id + " + BOOKINGS + ", DATEADD(YEAR, -2, start_date), DATEADD(YEAR, -2, end_date), " +
+                "item_id, owner_id, booker_id, status FROM BOOKINGS");
+        execute("INSERT INTO COMMENTS (id, text, item_id, author_id, created) " +
+                "SELECT x, 'comment' || x, MOD(x, " + ITEMS + ") + 1, MOD(x, " + USERS + ") + 1, LOCALTIMESTAMP " +
+                "FROM SYSTEM_RANGE(1, " + COMMENTS + ")");
+        em.flush();
+        em.clear();
+        statements.clear();
+    }
+
+    @Test
+    void repositoryQueries_ShouldNotScanWholeTables() {
+        runRepositoryQueries();
+
+        Set<String> distinct = new LinkedHashSet<>(statements);
+        Map<String, String> scans = new LinkedHashMap<>();
+        for (String sql : distinct) {
+            String plan = explain(sql);
+            if (TABLE_SCAN.matcher(plan).find()) {
+                scans.put(sql, plan);
+            }
+        }
+
+        assertTrue(distinct.size() > 20, "Перехвачено слишком мало запросов: " + distinct.size());
+        assertTrue(scans.isEmpty(), () -> "Полный просмотр таблицы:\n" + String.join("\n\n", scans.values()));
+    }
+
+    private void runRepositoryQueries() {
+        Long userId = 42L;
+        Long itemId = 42L;
+        ScrollPosition first = ScrollPosition.offset();
+        ScrollPosition next = ScrollPosition.forward(Map.of("start", now, "id", 50_000L));
+
+        bookingHistoryRepository.findByBooker_Id(userId, first, SORT, LIMIT);
+        bookingHistoryRepository.findByBooker_Id(userId, next, SORT, LIMIT);
+        bookingHistoryRepository.findByBooker_IdAndStatus(userId, BookingStatus.REJECTED, first, SORT, LIMIT);
+        bookingHistoryRepository.findByBooker_IdAndEndBefore(userId, now, first, SORT, LIMIT);
+        bookingRepository.findByBooker_IdAndStatus(userId, BookingStatus.WAITING, first, SORT, LIMIT);
+        bookingRepository.findByBooker_IdAndStartAfter(userId, now, first, SORT, LIMIT);
+        bookingRepository.findByBooker_IdAndStartLessThanEqualAndEndGreaterThanEqual(userId, now, now,
+                first, SORT, LIMIT);
+        bookingHistoryRepository.findByOwnerId(userId, first, SORT, LIMIT);
+        bookingHistoryRepository.findByOwnerId(userId, next, SORT, LIMIT);
+        bookingHistoryRepository.findByOwnerIdAndStatus(userId, BookingStatus.REJECTED, first, SORT, LIMIT);
+        bookingHistoryRepository.findByOwnerIdAndEndBefore(userId, now, first, SORT, LIMIT);
+        bookingRepository.findByOwnerIdAndStatus(userId, BookingStatus.WAITING, first, SORT, LIMIT);
+        bookingRepository.findByOwnerIdAndStartAfter(userId, now, first, SORT, LIMIT);
+        bookingRepository.findByOwnerIdAndStartLessThanEqualAndEndGreaterThanEqual(userId, now, now,
+                first, SORT, LIMIT);
+        bookingRepository.findByStatusInAndEndAfter(ACTIVE, now.plusDays(2_000));
+        bookingRepository.findByItem_IdAndStatusInAndEndAfter(itemId, ACTIVE, now);
+        bookingRepository.existsOverlapping(itemId, now, now.plusDays(1), ACTIVE);
+        bookingRepository.updateWaitingStatus(4L, userId, BookingStatus.APPROVED);
+        bookingRepository.findViewById(4L);
+        bookingHistoryRepository.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(userId, itemId,
+                BookingStatus.APPROVED, now);
+        bookingHistoryRepository.findById(4L);
+        bookingRepository.findLastAndNextBookings(List.of(itemId, itemId + 1), now);
+        bookingHistoryRepository.findLastBooking(itemId, now);
+        bookingRepository.findNextBooking(itemId, now);
+        bookingRepository.findFinishedIds(now.minusDays(365), 1_000);
+
+        itemRepository.findAllByRequest_Id(5L);
+        itemRepository.findAllByUser_Id(userId);
+        itemRepository.existsByUser_Id(userId);
+        itemRepository.findAllByRequest_IdIn(List.of(5L, 10L));
+        itemRepository.findItemDetail(itemId, userId, now);
+        itemRepository.lockById(itemId);
+
+        commentRepository.findByItemId(itemId);
+        commentRepository.findByItem_IdIn(List.of(itemId, itemId + 1));
+
+        itemRequestRepository.findAllByRequestor_Id(userId);
+
+        userRepository.existsByEmail("user42@mail.ru");
+        userRepository.existsByEmailAndIdNot("user42@mail.ru", userId);
+        userRepository.findUserById(userId);
+    }
+
+    private void execute(String sql) {
+        em.getEntityManager().createNativeQuery(sql).executeUpdate();
+    }
+
+    private String explain(String sql) {
+        return em.getEntityManager().unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            } catch (SQLException e) {
+                throw new IllegalStateException("EXPLAIN не выполнен для " + sql, e);
+            }
+        });
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            StatementInspector inspector = sql -> {
+                statements.add(sql);
+                return sql;
+            };
+            return properties -> properties.put("hibernate.session_factory.statement_inspector", inspector);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Маршрутизация транзакций readOnly на двух встроенных H2: основная БД и пустая реплика со схемой
+ * из тех же миграций, то есть реплика, не получившая ни одной записи. Вторая реплика смотрит в основную БД,
+ * поэтому по кругу чтения попеременно находят и не находят вещь. Отставание реплики задается
+ * в таблице REPLICA_LAG (NULL - отставание неизвестно), проверка реплик вызывается из теста.
+ */
+class ReplicaRoutingTest {
+
+    private static final String CREDENTIALS = "shareit";
+
+    private static final String PRIMARY = "jdbc:h2:mem:replica-routing-primary";
+
+    private static final String EMPTY_REPLICA = "jdbc:h2:mem:replica-routing-replica;DB_CLOSE_DELAY=-1";
+
+    private static final long STICKINESS_MILLIS = 500;
+
+    private static final int OWNER = 1;
+
+    private static final int OTHER_USER = 2;
+
+    private static ServletWebServerApplicationContext server;
+
+    private static HttpClient client;
+
+    private static String base;
+
+    private static long itemId;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        Flyway.configure().dataSource(EMPTY_REPLICA, CREDENTIALS, CREDENTIALS).load().migrate();
+        createLagTable(EMPTY_REPLICA);
+        server = (ServletWebServerApplicationContext) new SpringApplicationBuilder(ShareItServer.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + PRIMARY,
+                        "--shareit.replicas.enabled=true",
+                        "--shareit.replicas.nodes[0].url=" + EMPTY_REPLICA,
+                        "--shareit.replicas.nodes[0].username=" + CREDENTIALS,
+                        "--shareit.replicas.nodes[0].password=" + CREDENTIALS,
+                        "--shareit.replicas.nodes[1].url=" + PRIMARY,
+                        "--shareit.replicas.nodes[1].username=" + CREDENTIALS,
+                        "--shareit.replicas.nodes[1].password=" + CREDENTIALS,
+                        "--shareit.replicas.lag-query=SELECT seconds FROM REPLICA_LAG",
+                        "--shareit.replicas.max-lag=1s",
+                        "--shareit.replicas.health-check-interval=PT1H",
+                        "--shareit.replicas.stickiness=" + STICKINESS_MILLIS + "ms",
+                        "--shareit.bookings.archive.enabled=false");
+        createLagTable(PRIMARY);
+        client = HttpClient.newHttpClient();
+        base = "http://localhost:" + server.getWebServer().getPort();
+        assertEquals(200, send("POST", "/users", null, "{\"name\":\"owner\",\"email\":\"owner@mail.ru\"}")
+                .statusCode());
+        assertEquals(200, send("POST", "/users", null, "{\"name\":\"other\",\"email\":\"other@mail.ru\"}")
+                .statusCode());
+        HttpResponse<String> item = send("POST", "/items", OWNER,
+                "{\"name\":\"Дрель\",\"description\":\"Аккумуляторная дрель\",\"available\":true}");
+        assertEquals(200, item.statusCode());
+        itemId = Long.parseLong(item.body().replaceAll(".*\"id\":(\\d+).*", "$1"));
+    }
+
+    @AfterAll
+    static void stopServer() throws SQLException {
+        server.close();
+        client.close();
+        execute(EMPTY_REPLICA, "SHUTDOWN");
+    }
+
+    @BeforeEach
+    void resetLag() throws SQLException {
+        setLag(EMPTY_REPLICA, 0.0);
+        setLag(PRIMARY, 0.0);
+        server.getBean(ReplicaDataSource.class).checkReplicas();
+    }
+
+    @Test
+    void readOnlyTransactions_ShouldAlternateBetweenReplicas() throws Exception {
+        Thread.sleep(STICKINESS_MILLIS * 2);
+
+        List<Integer> statuses = readItem(OTHER_USER, 4);
+
+        assertTrue(statuses.contains(200), statuses::toString);
+        assertTrue(statuses.contains(404), statuses::toString);
+    }
+
+    @Test
+    void readsAfterOwnWrite_ShouldGoToPrimaryWithinWindow() throws Exception {
+        assertEquals(200, send("PATCH", "/items/" + itemId, OWNER, "{\"description\":\"Дрель с набором бит\"}")
+                .statusCode());
+
+        assertEquals(List.of(200, 200, 200, 200), readItem(OWNER, 4));
+        assertTrue(readItem(OTHER_USER, 4).contains(404));
+    }
+
+    @Test
+    void laggingReplica_ShouldBeSkipped() throws Exception {
+        setLag(EMPTY_REPLICA, 30.0);
+        server.getBean(ReplicaDataSource.class).checkReplicas();
+
+        assertEquals(List.of(200, 200, 200, 200), readItem(OTHER_USER, 4));
+    }
+
+    @Test
+    void replicaWithUnknownLag_ShouldBeSkipped() throws Exception {
+        setLag(EMPTY_REPLICA, null);
+        server.getBean(ReplicaDataSource.class).checkReplicas();
+
+        assertEquals(List.of(200, 200, 200, 200), readItem(OTHER_USER, 4));
+    }
+
+    @Test
+    void allReplicasLagging_ShouldFallBackToPrimary() throws Exception {
+        setLag(EMPTY_REPLICA, 30.0);
+        setLag(PRIMARY, 30.0);
+        ReplicaDataSource replicas = server.getBean(ReplicaDataSource.class);
+        replicas.checkReplicas();
+        MeterRegistry meterRegistry = server.getBean(MeterRegistry.class);
+        double before = meterRegistry.get("shareit.replicas.fallback").counter().count();
+
+        assertEquals(List.of(200, 200), readItem(OTHER_USER, 2));
+        assertEquals(0, meterRegistry.get("shareit.replicas.available").gauge().value());
+        assertTrue(meterRegistry.get("shareit.replicas.fallback").counter().count() >= before + 2);
+    }
+
+    private static List<Integer> readItem(int userId, int times) throws Exception {
+        List<Integer> statuses = new ArrayList<>();
+        for (int i = 0; i < times; i++) {
+            statuses.add(send("GET", "/items/" + itemId, userId, null).statusCode());
+        }
+        return statuses;
+    }
+
+    private static HttpResponse<String> send(String method, String path, Integer userId, String body)
+            throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        if (userId != null) {
+            request.header("X-Sharer-User-Id", String.valueOf(userId));
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void createLagTable(String url) throws SQLException {
+        execute(url, "CREATE TABLE IF NOT EXISTS REPLICA_LAG (seconds DOUBLE PRECISION)");
+        execute(url, "DELETE FROM REPLICA_LAG");
+        execute(url, "INSERT INTO REPLICA_LAG VALUES (0)");
+    }
+
+    private static void setLag(String url, Double seconds) throws SQLException {
+        execute(url, "UPDATE REPLICA_LAG SET seconds = " + seconds);
+    }
+
+    private static void execute(String url, String sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, CREDENTIALS, CREDENTIALS);
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package ru.practicum.shareit.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Нагрузочное сравнение пула потоков Tomcat и виртуальных потоков (spring.threads.virtual.enabled)
+ * при 1000 и 5000 одновременных соединений. Пул Hikari намеренно мал, а connectionTimeout короткий:
+ * без предела shareit.db-admission.* запросы сверх пула падали бы в очереди Hikari с 500. Для каждого
+ * режима печатается пропускная способность; проверяется только то, что все запросы обслужены, потому что
+ * пропускная способность зависит от числа ядер и прогрева JIT и служит для сравнения на конкретной машине.
+ */
+@Tag("benchmark")
+@Slf4j
+class ThreadModeLoadTest {
+
+    private static final int[] CONNECTIONS = {1_000, 5_000};
+
+    private static final int POOL_SIZE = 4;
+
+    private static final String USER = "{\"name\":\"user\",\"email\":\"user@mail.ru\"}";
+
+    private static HttpClient client;
+
+    @BeforeAll
+    static void startClient() {
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @AfterAll
+    static void stopClient() {
+        client.close();
+    }
+
+    @Test
+    void bothModes_ShouldServeAllConnectionsWithinPool() {
+        for (String mode : List.of("pooled", "virtual")) {
+            for (Result result : run(mode)) {
+                log.info("{}: {} соединений, {} запросов в секунду", mode, result.connections(),
+                        Math.round(result.throughput()));
+                assertEquals(result.connections(), result.succeeded(), mode + ", " + result.connections());
+            }
+        }
+    }
+
+    private List<Result> run(String mode) {
+        try (ServletWebServerApplicationContext server = (ServletWebServerApplicationContext)
+                new SpringApplicationBuilder(ShareItServer.class)
+                        .run("--server.port=0",
+                                "--spring.datasource.url=jdbc:h2:mem:threads-" + mode,
+                                "--spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                                "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                                "--spring.datasource.hikari.connection-timeout=250",
+                                "--shareit.db-admission.max-wait=60s",
+                                "--shareit.bookings.archive.enabled=false",
+                                "--spring.jpa.properties.hibernate.generate_statistics=false",
+                                "--logging.level.org.hibernate.SQL=INFO")) {
+            String base = "http://localhost:" + server.getWebServer().getPort() + "/users";
+            HttpResponse<String> created = client.sendAsync(HttpRequest.newBuilder(URI.create(base))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(USER))
+                    .build(), HttpResponse.BodyHandlers.ofString()).join();
+            assertEquals(200, created.statusCode());
+            URI uri = URI.create(base + "/1");
+            fire(uri, 200);
+
+            List<Result> results = new ArrayList<>();
+            for (int connections : CONNECTIONS) {
+                long started = System.nanoTime();
+                int succeeded = fire(uri, connections);
+                double seconds = (System.nanoTime() - started) / 1e9;
+                results.add(new Result(connections, succeeded, connections / seconds));
+            }
+            return results;
+        }
+    }
+
+    private int fire(URI uri, int connections) {
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            calls.add(client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+                    .thenApply(HttpResponse::statusCode));
+        }
+        return (int) calls.stream().map(CompletableFuture::join).filter(status -> status == 200).count();
+    }
+
+    private record Result(int connections, int succeeded, double throughput) {
+    }
+}
@@ -11,6 +11,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPage;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.Arrays;
@@ -134,15 +135,16 @@ class ItemControllerTest {
 
         List<ItemDto> expectedItems = Arrays.asList(item1);
 
-        when(itemService.searchItem(userId, searchText)).thenReturn(expectedItems);
+        when(itemService.searchItem(userId, searchText, 0, 10, null)).thenReturn(new ItemPage(expectedItems, "next"));
 
-        ResponseEntity<List<ItemDto>> response = itemController.searchItem(userId, searchText);
+        ResponseEntity<List<ItemDto>> response = itemController.searchItem(userId, searchText, 0, 10, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertEquals(1, response.getBody().size());
         assertEquals(expectedItems, response.getBody());
-        verify(itemService, times(1)).searchItem(userId, searchText);
+        assertEquals("next", response.getHeaders().getFirst("X-Next-Cursor"));
+        verify(itemService, times(1)).searchItem(userId, searchText, 0, 10, null);
     }
 
     @Test
@@ -151,14 +153,15 @@ class ItemControllerTest {
         Long userId = 1L;
         String searchText = "";
 
-        when(itemService.searchItem(userId, searchText)).thenReturn(Arrays.asList());
+        when(itemService.searchItem(userId, searchText, 0, 10, null)).thenReturn(new ItemPage(Arrays.asList(), null));
 
-        ResponseEntity<List<ItemDto>> response = itemController.searchItem(userId, searchText);
+        ResponseEntity<List<ItemDto>> response = itemController.searchItem(userId, searchText, 0, 10, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
         assertTrue(response.getBody().isEmpty());
-        verify(itemService, times(1)).searchItem(userId, searchText);
+        assertFalse(response.getHeaders().containsKey("X-Next-Cursor"));
+        verify(itemService, times(1)).searchItem(userId, searchText, 0, 10, null);
     }
 
     @Test
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IndexedItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private IndexedItemSearchEngine engine;
+
+    private final Item drill = item(1L, "Дрель", "Аккумуляторная дрель", true);
+
+    private final Item screwdriver = item(2L, "Шуруповерт", "Может работать как дрель", true);
+
+    private final Item hammerDrill = item(3L, "Перфоратор", "Ударная дрель-перфоратор", true);
+
+    private final Item brokenDrill = item(4L, "Дрель старая", "Не работает", false);
+
+    private final Item miniDrill = item(5L, "Минидрель", "Для мелких работ", true);
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findAll()).thenReturn(List.of(drill, screwdriver, hammerDrill, brokenDrill, miniDrill));
+        engine.rebuild();
+    }
+
+    @Test
+    void rank_ShouldPreferNameOverDescription() {
+        assertEquals(List.of(1L, 5L, 2L, 3L), rank("дрель"));
+    }
+
+    @Test
+    void rank_ShouldMatchSubstringsAndShortQueries() {
+        assertEquals(List.of(3L), rank("форат"));
+        assertEquals(List.of(2L), rank("ове"));
+        assertEquals(List.of(1L, 5L, 2L, 3L), rank("ь"));
+        assertEquals(List.of(3L), rank("дрель-п"));
+    }
+
+    @Test
+    void rank_ShouldSkipUnavailableAndUnknownText() {
+        assertTrue(rank("стар").isEmpty());
+        assertTrue(rank("пила").isEmpty());
+        assertTrue(rank("").isEmpty());
+    }
+
+    @Test
+    void index_ShouldReplaceOldTextAndRespectAvailability() {
+        engine.index(item(2L, "Отвертка", "Крестовая", true));
+        engine.index(item(4L, "Дрель старая", "Починили", true));
+
+        assertEquals(List.of(1L, 4L, 5L, 3L), rank("дрель"));
+        assertEquals(List.of(2L), rank("отвер"));
+        assertTrue(rank("шуруп").isEmpty());
+
+        engine.index(item(1L, "Дрель", "Аккумуляторная дрель", false));
+
+        assertEquals(List.of(4L, 5L, 3L), rank("дрель"));
+    }
+
+    @Test
+    void top_ShouldApplyOffsetAndLimit() {
+        assertEquals(List.of(new ItemSearchCursor(3, 5L), new ItemSearchCursor(2, 2L)),
+                engine.top("дрель", null, 1, 2));
+        assertTrue(engine.top("дрель", null, 10, 2).isEmpty());
+    }
+
+    @Test
+    void top_WithCursor_ShouldContinueAfterIt() {
+        ItemSearchCursor after = new ItemSearchCursor(2, 2L);
+
+        assertEquals(List.of(new ItemSearchCursor(2, 3L)), engine.top("дрель", after, 0, 10));
+    }
+
+    @Test
+    void search_ShouldLoadItemsInRankOrderAndIgnoreCase() {
+        when(itemRepository.findAllById(List.of(1L, 5L, 2L)))
+                .thenReturn(List.of(screwdriver, drill, miniDrill));
+
+        List<ItemHit> result = engine.search("ДРЕЛЬ", null, 0, 3);
+
+        assertEquals(List.of(drill, miniDrill, screwdriver), result.stream().map(ItemHit::item).toList());
+        assertEquals(List.of(8, 3, 2), result.stream().map(ItemHit::score).toList());
+    }
+
+    @Test
+    void search_WhenNothingMatches_ShouldNotQueryRepository() {
+        assertTrue(engine.search("пила", null, 0, 10).isEmpty());
+        verify(itemRepository, never()).findAllById(any());
+    }
+
+    private List<Long> rank(String query) {
+        return engine.top(query, null, 0, 100).stream().map(ItemSearchCursor::itemId).toList();
+    }
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        return item;
+    }
+}
@@ -0,0 +1,176 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHistory;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.GetItemDto;
+import ru.practicum.shareit.item.dto.mappers.ItemMappers;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Сравнение чтения карточки вещи владельцем: прежний путь (findById, findLastBooking, findNextBooking,
+ * комментарии с ленивой загрузкой авторов) и getItem. Печатает число запросов и среднее время на H2
+ * в последнем из нескольких чередующихся раундов, чтобы обе ветки успели прогреться. Число запросов и
+ * совпадение результата проверяет ItemDetailReadTest, здесь только замер.
+ * Кэш второго уровня отключен: сравнивается форма запросов, а не попадания в кэш.
+ */
+@Slf4j
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+@Tag("benchmark")
+class ItemDetailReadBenchmarkTest {
+
+    private static final int COMMENTS = 5;
+
+    private static final int ROUNDS = 3;
+
+    private static final int WARM_UP = 300;
+
+    private static final int ITERATIONS = 500;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingHistoryRepository bookingHistoryRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private ItemServiceImpl itemService;
+
+    private Item item;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, bookingHistoryRepository,
+                commentRepository, null);
+
+        LocalDateTime now = LocalDateTime.now();
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Аккумуляторная дрель");
+        item.setAvailable(true);
+        item.setUser(owner);
+        em.persist(item);
+        for (int i = 0; i < COMMENTS; i++) {
+            User author = em.persist(new User(null, "author" + i, "author" + i + "@mail.ru"));
+            persistBooking(author, now.minusDays(10L * (i + 1)), now.minusDays(10L * (i + 1) - 1));
+            persistBooking(author, now.plusDays(10L * (i + 1)), now.plusDays(10L * (i + 1) + 1));
+
+            Comment comment = new Comment();
+            comment.setText("Комментарий " + i);
+            comment.setCreated(now);
+            comment.setAuthor(author);
+            comment.setItem(item);
+            em.persist(comment);
+        }
+        em.flush();
+    }
+
+    @Test
+    void getItem_CompareWithPreviousRead() {
+        Long itemId = item.getId();
+        Long ownerId = owner.getId();
+
+        Result before = null;
+        Result after = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            before = measure(() -> legacyGetItem(itemId, ownerId));
+            after = measure(() -> itemService.getItem(itemId, ownerId));
+        }
+
+        log.info("Карточка вещи, {} комментариев: было {} запросов и {} мкс, стало {} запросов и {} мкс",
+                COMMENTS, before.statements(), before.micros(), after.statements(), after.micros());
+    }
+
+    private GetItemDto legacyGetItem(Long itemId, Long userId) {
+        Item found = itemRepository.findById(itemId).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        BookingHistory last = found.getUser().getId().equals(userId)
+                ? bookingHistoryRepository.findLastBooking(itemId, now) : null;
+        Booking next = found.getUser().getId().equals(userId) ? bookingRepository.findNextBooking(itemId, now) : null;
+        List<Comment> comments = em.getEntityManager()
+                .createQuery("SELECT c FROM Comment as c WHERE c.item.id = :itemId", Comment.class)
+                .setParameter("itemId", itemId)
+                .getResultList();
+        GetItemDto dto = ItemMappers.toItemAndCommentDto(found, comments, last, next);
+        dto.getLastBooking().setEnd(last.getEnd());
+        dto.getNextBooking().setEnd(next.getEnd());
+        return dto;
+    }
+
+    private Result measure(Supplier<GetItemDto> read) {
+        for (int i = 0; i < WARM_UP; i++) {
+            em.clear();
+            read.get();
+        }
+        em.clear();
+        statistics.clear();
+        read.get();
+        long statements = statistics.getPrepareStatementCount();
+
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            em.clear();
+            read.get();
+        }
+        long micros = (System.nanoTime() - started) / ITERATIONS / 1_000;
+        return new Result(statements, micros);
+    }
+
+    private void persistBooking(User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.APPROVED);
+        booking.setStart(start);
+        booking.setEnd(end);
+        em.persist(booking);
+    }
+
+    private record Result(long statements, long micros) {
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingHistory;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.GetItemDto;
+import ru.practicum.shareit.item.dto.mappers.ItemMappers;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Карточка вещи для владельца читается через getItem двумя запросами вместо 4 + число комментариев
+ * на прежнем пути (findById, findLastBooking, findNextBooking, комментарии с ленивой загрузкой авторов)
+ * и совпадает с ним по содержимому. Время обоих путей сравнивает ItemDetailReadBenchmarkTest.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+class ItemDetailReadTest {
+
+    private static final int COMMENTS = 5;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingHistoryRepository bookingHistoryRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private ItemServiceImpl itemService;
+
+    private Item item;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, bookingHistoryRepository,
+                commentRepository, null);
+
+        LocalDateTime now = LocalDateTime.now();
+        owner = em.persist(new User(null, "owner", "owner@mail.ru"));
+        item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Аккумуляторная дрель");
+        item.setAvailable(true);
+        item.setUser(owner);
+        em.persist(item);
+        for (int i = 0; i < COMMENTS; i++) {
+            User author = em.persist(new User(null, "author" + i, "author" + i + "@mail.ru"));
+            persistBooking(author, now.minusDays(10L * (i + 1)), now.minusDays(10L * (i + 1) - 1));
+            persistBooking(author, now.plusDays(10L * (i + 1)), now.plusDays(10L * (i + 1) + 1));
+
+            Comment comment = new Comment();
+            comment.setText("Комментарий " + i);
+            comment.setCreated(now);
+            comment.setAuthor(author);
+            comment.setItem(item);
+            em.persist(comment);
+        }
+        em.flush();
+    }
+
+    @Test
+    void getItem_ShouldUseTwoStatements() {
+        Long itemId = item.getId();
+        Long ownerId = owner.getId();
+
+        assertEquals(4 + COMMENTS, countStatements(() -> legacyGetItem(itemId, ownerId)));
+        assertEquals(2, countStatements(() -> itemService.getItem(itemId, ownerId)));
+    }
+
+    @Test
+    void getItem_ShouldMatchPreviousRead() {
+        Long itemId = item.getId();
+        Long ownerId = owner.getId();
+        em.clear();
+        GetItemDto before = legacyGetItem(itemId, ownerId);
+        em.clear();
+
+        assertEquals(before, itemService.getItem(itemId, ownerId));
+    }
+
+    private GetItemDto legacyGetItem(Long itemId, Long userId) {
+        Item found = itemRepository.findById(itemId).orElseThrow();
+        LocalDateTime now = LocalDateTime.now();
+        BookingHistory last = found.getUser().getId().equals(userId)
+                ? bookingHistoryRepository.findLastBooking(itemId, now) : null;
+        Booking next = found.getUser().getId().equals(userId) ? bookingRepository.findNextBooking(itemId, now) : null;
+        List<Comment> comments = em.getEntityManager()
+                .createQuery("SELECT c FROM Comment as c WHERE c.item.id = :itemId", Comment.class)
+                .setParameter("itemId", itemId)
+                .getResultList();
+        GetItemDto dto = ItemMappers.toItemAndCommentDto(found, comments, last, next);
+        dto.getLastBooking().setEnd(last.getEnd());
+        dto.getNextBooking().setEnd(next.getEnd());
+        return dto;
+    }
+
+    private long countStatements(Supplier<GetItemDto> read) {
+        em.clear();
+        statistics.clear();
+        read.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void persistBooking(User booker, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(BookingStatus.APPROVED);
+        booking.setStart(start);
+        booking.setEnd(end);
+        em.persist(booking);
+    }
+}
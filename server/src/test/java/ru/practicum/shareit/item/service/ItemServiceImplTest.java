@@ -5,19 +5,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.dto.LastNextBookingView;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingHistoryRepository;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.GetItemDto;
+import ru.practicum.shareit.item.dto.ItemDetailView;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemPage;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemHit;
+import ru.practicum.shareit.item.search.ItemSearchCursor;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -42,9 +48,15 @@ class ItemServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private BookingHistoryRepository bookingHistoryRepository;
+
     @Mock
     private CommentRepository commentRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -76,6 +88,7 @@ class ItemServiceImplTest {
         assertNotNull(result);
         verify(userRepository, times(1)).findById(userId);
         verify(itemRepository, times(1)).save(any(Item.class));
+        verify(itemSearchEngine, times(1)).index(any(Item.class));
     }
 
     @Test
@@ -128,6 +141,7 @@ class ItemServiceImplTest {
         verify(userRepository, times(1)).findById(userId);
         verify(itemRepository, times(1)).findById(itemId);
         verify(itemRepository, times(1)).save(existingItem);
+        verify(itemSearchEngine, times(1)).index(updatedItem);
     }
 
     @Test
@@ -198,24 +212,20 @@ class ItemServiceImplTest {
         Long userId = 2L;
         Long itemId = 1L;
 
-        User owner = new User();
-        owner.setId(1L);
-
-        Item item = new Item();
-        item.setId(itemId);
-        item.setName("Дрель");
-        item.setUser(owner);
-
         List<Comment> comments = Arrays.asList();
 
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
+        when(itemRepository.findItemDetail(eq(itemId), eq(userId), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(itemDetail(itemId, null, null)));
         when(commentRepository.findByItemId(itemId)).thenReturn(comments);
 
         GetItemDto result = itemService.getItem(itemId, userId);
 
         assertNotNull(result);
-        verify(itemRepository, times(1)).findById(itemId);
-        verify(bookingRepository, never()).findLastBooking(anyLong(), any(LocalDateTime.class));
+        assertEquals("Дрель", result.getName());
+        assertNull(result.getLastBooking());
+        assertNull(result.getNextBooking());
+        verify(itemRepository, never()).findById(anyLong());
+        verify(bookingHistoryRepository, never()).findLastBooking(anyLong(), any(LocalDateTime.class));
         verify(bookingRepository, never()).findNextBooking(anyLong(), any(LocalDateTime.class));
         verify(commentRepository, times(1)).findByItemId(itemId);
     }
@@ -226,33 +236,32 @@ class ItemServiceImplTest {
         Long userId = 1L;
         Long itemId = 1L;
 
-        User owner = new User();
-        owner.setId(userId);
+        User author = new User();
+        author.setId(3L);
+        author.setName("Author");
 
         Item item = new Item();
         item.setId(itemId);
         item.setName("Дрель");
-        item.setUser(owner);
 
-        Booking lastBooking = new Booking();
-        lastBooking.setId(1L);
-        Booking nextBooking = new Booking();
-        nextBooking.setId(2L);
-        List<Comment> comments = Arrays.asList();
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setText("Отличная дрель!");
+        comment.setAuthor(author);
+        comment.setItem(item);
 
-        when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.findLastBooking(eq(itemId), any(LocalDateTime.class))).thenReturn(lastBooking);
-        when(bookingRepository.findNextBooking(eq(itemId), any(LocalDateTime.class))).thenReturn(nextBooking);
-        when(commentRepository.findByItemId(itemId)).thenReturn(comments);
+        when(itemRepository.findItemDetail(eq(itemId), eq(userId), any(LocalDateTime.class)))
+                .thenReturn(Optional.of(itemDetail(itemId, 1L, 2L)));
+        when(commentRepository.findByItemId(itemId)).thenReturn(List.of(comment));
 
         GetItemDto result = itemService.getItem(itemId, userId);
 
         assertNotNull(result);
-        assertNotNull(result.getLastBooking());
-        assertNotNull(result.getNextBooking());
-        verify(itemRepository, times(1)).findById(itemId);
-        verify(bookingRepository, times(1)).findLastBooking(eq(itemId), any(LocalDateTime.class));
-        verify(bookingRepository, times(1)).findNextBooking(eq(itemId), any(LocalDateTime.class));
+        assertEquals(1L, result.getLastBooking().getId());
+        assertEquals(2L, result.getNextBooking().getId());
+        assertEquals("Author", result.getComments().get(0).getAuthorName());
+        verify(bookingHistoryRepository, never()).findLastBooking(anyLong(), any(LocalDateTime.class));
+        verify(bookingRepository, never()).findNextBooking(anyLong(), any(LocalDateTime.class));
         verify(commentRepository, times(1)).findByItemId(itemId);
     }
 
@@ -262,11 +271,10 @@ class ItemServiceImplTest {
         Long userId = 1L;
         Long itemId = 999L;
 
-        when(itemRepository.findById(itemId)).thenReturn(Optional.empty());
+        when(itemRepository.findItemDetail(eq(itemId), eq(userId), any(LocalDateTime.class)))
+                .thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.getItem(itemId, userId));
-        verify(itemRepository, times(1)).findById(itemId);
-        verify(bookingRepository, never()).findLastBooking(anyLong(), any(LocalDateTime.class));
         verify(commentRepository, never()).findByItemId(anyLong());
     }
 
@@ -290,13 +298,51 @@ class ItemServiceImplTest {
 
         List<Item> userItems = Arrays.asList(item1, item2);
 
+        User author = new User();
+        author.setId(2L);
+        author.setName("Author");
+
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setText("Отличная дрель!");
+        comment.setAuthor(author);
+        comment.setItem(item1);
+
+        LocalDateTime start = LocalDateTime.now();
+
         when(itemRepository.findAllByUser_Id(userId)).thenReturn(userItems);
+        when(bookingRepository.findLastAndNextBookings(eq(List.of(1L, 2L)), any(LocalDateTime.class)))
+                .thenReturn(List.of(lastNextBooking(10L, 1L, start.minusDays(2), LastNextBookingView.LAST),
+                        lastNextBooking(11L, 1L, start.plusDays(1), LastNextBookingView.NEXT),
+                        lastNextBooking(12L, 2L, start.plusDays(3), LastNextBookingView.NEXT)));
+        when(commentRepository.findByItem_IdIn(List.of(1L, 2L))).thenReturn(List.of(comment));
 
         List<ItemDto> result = itemService.getItemUser(userId);
 
         assertNotNull(result);
         assertEquals(2, result.size());
+        assertEquals(10L, result.get(0).getLastBooking().getId());
+        assertEquals(11L, result.get(0).getNextBooking().getId());
+        assertEquals(1, result.get(0).getComments().size());
+        assertEquals("Author", result.get(0).getComments().get(0).getAuthorName());
+        assertNull(result.get(1).getLastBooking());
+        assertEquals(12L, result.get(1).getNextBooking().getId());
+        assertTrue(result.get(1).getComments().isEmpty());
         verify(itemRepository, times(1)).findAllByUser_Id(userId);
+        verify(bookingHistoryRepository, never()).findLastBooking(any(), any());
+        verify(bookingRepository, never()).findNextBooking(any(), any());
+        verify(commentRepository, never()).findByItemId(any());
+    }
+
+    @Test
+    void getItemUser_WhenUserHasNoItems_ShouldNotQueryBookings() {
+
+        when(itemRepository.findAllByUser_Id(1L)).thenReturn(List.of());
+
+        List<ItemDto> result = itemService.getItemUser(1L);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(bookingRepository, commentRepository);
     }
 
     @Test
@@ -310,15 +356,65 @@ class ItemServiceImplTest {
         item1.setName("Дрель");
         item1.setAvailable(true);
 
-        List<Item> foundItems = Arrays.asList(item1);
+        when(itemSearchEngine.search(searchText, null, 0, 11)).thenReturn(List.of(new ItemHit(item1, 6)));
 
-        when(itemRepository.searchItem(searchText)).thenReturn(foundItems);
-
-        List<ItemDto> result = itemService.searchItem(userId, searchText);
+        ItemPage result = itemService.searchItem(userId, searchText, 0, 10, null);
 
         assertNotNull(result);
-        assertEquals(1, result.size());
-        verify(itemRepository, times(1)).searchItem(searchText);
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+        verify(itemSearchEngine, times(1)).search(searchText, null, 0, 11);
+    }
+
+    @Test
+    void searchItem_WhenMoreResults_ShouldReturnCursorOfLastItem() {
+
+        Long userId = 1L;
+        String searchText = "дрель";
+
+        List<ItemHit> hits = List.of(new ItemHit(item(1L), 6), new ItemHit(item(2L), 3), new ItemHit(item(3L), 1));
+        when(itemSearchEngine.search(searchText, null, 4, 3)).thenReturn(hits);
+
+        ItemPage result = itemService.searchItem(userId, searchText, 4, 2, null);
+
+        assertEquals(2, result.getItems().size());
+        assertEquals(new ItemSearchCursor(3, 2L).encode(), result.getNextCursor());
+    }
+
+    @Test
+    void searchItem_WithCursor_ShouldResumeAfterCursorIgnoringFrom() {
+
+        Long userId = 1L;
+        String searchText = "дрель";
+        ItemSearchCursor cursor = new ItemSearchCursor(3, 2L);
+
+        when(itemSearchEngine.search(searchText, cursor, 0, 3)).thenReturn(List.of(new ItemHit(item(3L), 1)));
+
+        ItemPage result = itemService.searchItem(userId, searchText, 4, 2, cursor.encode());
+
+        assertEquals(1, result.getItems().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void searchItem_ShouldCapPageSize() {
+
+        Long userId = 1L;
+        String searchText = "а";
+
+        when(itemSearchEngine.search(searchText, null, 0, ItemServiceImpl.MAX_SEARCH_SIZE + 1)).thenReturn(List.of());
+
+        ItemPage result = itemService.searchItem(userId, searchText, 0, 10_000, null);
+
+        assertTrue(result.getItems().isEmpty());
+        verify(itemSearchEngine, times(1)).search(searchText, null, 0, ItemServiceImpl.MAX_SEARCH_SIZE + 1);
+    }
+
+    @Test
+    void searchItem_WithInvalidPaging_ShouldThrowException() {
+        assertThrows(ValidationException.class, () -> itemService.searchItem(1L, "дрель", -1, 10, null));
+        assertThrows(ValidationException.class, () -> itemService.searchItem(1L, "дрель", 0, 0, null));
+        assertThrows(ValidationException.class, () -> itemService.searchItem(1L, "дрель", 0, 10, "не курсор"));
     }
 
     @Test
@@ -327,11 +423,11 @@ class ItemServiceImplTest {
         Long userId = 1L;
         String searchText = "";
 
-        List<ItemDto> result = itemService.searchItem(userId, searchText);
+        ItemPage result = itemService.searchItem(userId, searchText, 0, 10, null);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(itemRepository, never()).searchItem(anyString());
+        assertTrue(result.getItems().isEmpty());
+        verify(itemSearchEngine, never()).search(anyString(), any(), anyInt(), anyInt());
     }
 
     @Test
@@ -340,11 +436,11 @@ class ItemServiceImplTest {
         Long userId = 1L;
         String searchText = null;
 
-        List<ItemDto> result = itemService.searchItem(userId, searchText);
+        ItemPage result = itemService.searchItem(userId, searchText, 0, 10, null);
 
         assertNotNull(result);
-        assertTrue(result.isEmpty());
-        verify(itemRepository, never()).searchItem(anyString());
+        assertTrue(result.getItems().isEmpty());
+        verify(itemSearchEngine, never()).search(anyString(), any(), anyInt(), anyInt());
     }
 
     @Test
@@ -361,9 +457,6 @@ class ItemServiceImplTest {
         Item item = new Item();
         item.setId(itemId);
 
-        Booking booking = new Booking();
-        booking.setId(1L);
-
         Comment comment = new Comment();
         comment.setId(1L);
         comment.setText("Отличная дрель!");
@@ -372,9 +465,9 @@ class ItemServiceImplTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(user));
         when(itemRepository.findById(itemId)).thenReturn(Optional.of(item));
-        when(bookingRepository.findByBookerIdAndItemIdAndStatusAndEndBefore(
+        when(bookingHistoryRepository.existsByBooker_IdAndItem_IdAndStatusAndEndBefore(
                 eq(userId), eq(itemId), eq(BookingStatus.APPROVED), any(LocalDateTime.class))
-        ).thenReturn(Arrays.asList(booking));
+        ).thenReturn(true);
         when(commentRepository.save(any(Comment.class))).thenReturn(comment);
 
         CommentDto result = itemService.addComment(userId, createCommentDto, itemId);
@@ -382,7 +475,7 @@ class ItemServiceImplTest {
         assertNotNull(result);
         verify(userRepository, times(1)).findById(userId);
         verify(itemRepository, times(1)).findById(itemId);
-        verify(bookingRepository, times(1)).findByBookerIdAndItemIdAndStatusAndEndBefore(
+        verify(bookingHistoryRepository, times(1)).existsByBooker_IdAndItem_IdAndStatusAndEndBefore(
                 eq(userId), eq(itemId), eq(BookingStatus.APPROVED), any(LocalDateTime.class));
         verify(commentRepository, times(1)).save(any(Comment.class));
     }
@@ -427,4 +520,96 @@ class ItemServiceImplTest {
         assertEquals(2, result.size());
         verify(itemRepository, times(1)).findAllByRequest_Id(requestId);
     }
+
+    private static Item item(Long id) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Дрель " + id);
+        item.setAvailable(true);
+        return item;
+    }
+
+    private static LastNextBookingView lastNextBooking(Long id, Long itemId, LocalDateTime start, String kind) {
+        return new LastNextBookingView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStartDate() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndDate() {
+                return start.plusDays(1);
+            }
+
+            @Override
+            public String getKind() {
+                return kind;
+            }
+        };
+    }
+
+    private static ItemDetailView itemDetail(Long id, Long lastBookingId, Long nextBookingId) {
+        LocalDateTime now = LocalDateTime.now();
+        return new ItemDetailView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return "Дрель";
+            }
+
+            @Override
+            public String getDescription() {
+                return "Аккумуляторная дрель";
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return true;
+            }
+
+            @Override
+            public Long getLastBookingId() {
+                return lastBookingId;
+            }
+
+            @Override
+            public LocalDateTime getLastBookingStart() {
+                return lastBookingId != null ? now.minusDays(2) : null;
+            }
+
+            @Override
+            public LocalDateTime getLastBookingEnd() {
+                return lastBookingId != null ? now.minusDays(1) : null;
+            }
+
+            @Override
+            public Long getNextBookingId() {
+                return nextBookingId;
+            }
+
+            @Override
+            public LocalDateTime getNextBookingStart() {
+                return nextBookingId != null ? now.plusDays(1) : null;
+            }
+
+            @Override
+            public LocalDateTime getNextBookingEnd() {
+                return nextBookingId != null ? now.plusDays(2) : null;
+            }
+        };
+    }
 }
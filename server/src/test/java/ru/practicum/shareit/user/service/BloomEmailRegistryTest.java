@@ -0,0 +1,69 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BloomEmailRegistryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @InjectMocks
+    private BloomEmailRegistry registry;
+
+    private final User john = new User(1L, "John", "john@example.com");
+
+    private final User jane = new User(2L, "Jane", "jane@example.com");
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findAll()).thenReturn(List.of(john, jane));
+        registry.rebuild();
+    }
+
+    @Test
+    void mightBeTaken_ShouldDeferToDatabaseOnlyForKnownEmails() {
+        assertTrue(registry.mightBeTaken("jane@example.com"));
+        assertFalse(registry.mightBeTaken("nobody@example.com"));
+        verify(userRepository, times(1)).findAll();
+        verifyNoMoreInteractions(userRepository);
+    }
+
+    @Test
+    void onSaved_ShouldAddNewEmail() {
+        User renamed = new User(1L, "John", "john.new@example.com");
+
+        registry.onSaved(renamed, "john@example.com");
+
+        assertTrue(registry.mightBeTaken("john.new@example.com"));
+    }
+
+    @Test
+    void bloomFilter_ShouldNeverReturnFalseNegatives() {
+        BloomEmailRegistry.EmailBloomFilter filter = new BloomEmailRegistry.EmailBloomFilter(1_000);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 50, "Слишком много ложных срабатываний: " + falsePositives);
+    }
+}
@@ -1,10 +1,12 @@
 package ru.practicum.shareit.user.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import ru.practicum.shareit.exception.DuplicateException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
@@ -12,10 +14,9 @@ import ru.practicum.shareit.user.dto.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
-import java.util.Arrays;
-
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -25,9 +26,17 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private EmailRegistry emailRegistry;
+
     @InjectMocks
     private UserServiceImpl userService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(emailRegistry.mightBeTaken(anyString())).thenReturn(true);
+    }
+
     @Test
     void getUser_WhenUserExists_ShouldReturnUser() {
         // Given
@@ -68,7 +77,7 @@ class UserServiceImplTest {
         User savedUser = new User(1L, "John Doe", "john@example.com");
 
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
 
         UserDto result = userService.createUser(userDto);
 
@@ -77,7 +86,7 @@ class UserServiceImplTest {
         assertEquals("John Doe", result.getName());
         assertEquals("john@example.com", result.getEmail());
         verify(userRepository, times(1)).existsByEmail("john@example.com");
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -91,7 +100,7 @@ class UserServiceImplTest {
 
         assertThrows(DuplicateException.class, () -> userService.createUser(userDto));
         verify(userRepository, times(1)).existsByEmail("john@example.com");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -105,8 +114,8 @@ class UserServiceImplTest {
         User updatedUser = new User(userId, "John New", "john.new@example.com");
 
         when(userRepository.findUserById(userId)).thenReturn(existingUser);
-        when(userRepository.findAll()).thenReturn(Arrays.asList(existingUser));
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.existsByEmailAndIdNot("john.new@example.com", userId)).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
 
         UserDto result = userService.updateUser(userId, updateDto);
 
@@ -115,7 +124,7 @@ class UserServiceImplTest {
         assertEquals("John New", result.getName());
         assertEquals("john.new@example.com", result.getEmail());
         verify(userRepository, times(1)).findUserById(userId);
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -129,7 +138,7 @@ class UserServiceImplTest {
         User updatedUser = new User(userId, "John New", "john@example.com");
 
         when(userRepository.findUserById(userId)).thenReturn(existingUser);
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
 
         UserDto result = userService.updateUser(userId, updateDto);
 
@@ -137,7 +146,7 @@ class UserServiceImplTest {
         assertEquals("John New", result.getName());
         assertEquals("john@example.com", result.getEmail());
         verify(userRepository, times(1)).findUserById(userId);
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -152,8 +161,8 @@ class UserServiceImplTest {
         User updatedUser = new User(userId, "John Doe", "john.new@example.com");
 
         when(userRepository.findUserById(userId)).thenReturn(existingUser);
-        when(userRepository.findAll()).thenReturn(Arrays.asList(existingUser));
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.existsByEmailAndIdNot("john.new@example.com", userId)).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
 
         // When
         UserDto result = userService.updateUser(userId, updateDto);
@@ -163,7 +172,7 @@ class UserServiceImplTest {
         assertEquals("John Doe", result.getName());
         assertEquals("john.new@example.com", result.getEmail());
         verify(userRepository, times(1)).findUserById(userId);
-        verify(userRepository, times(1)).save(any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -177,11 +186,11 @@ class UserServiceImplTest {
         updateDto.setEmail("other@example.com");
 
         when(userRepository.findUserById(userId)).thenReturn(existingUser);
-        when(userRepository.findAll()).thenReturn(Arrays.asList(existingUser, otherUser));
+        when(userRepository.existsByEmailAndIdNot(otherUser.getEmail(), userId)).thenReturn(true);
 
         assertThrows(DuplicateException.class, () -> userService.updateUser(userId, updateDto));
         verify(userRepository, times(1)).findUserById(userId);
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -196,7 +205,7 @@ class UserServiceImplTest {
 
         assertThrows(NotFoundException.class, () -> userService.updateUser(userId, updateDto));
         verify(userRepository, times(1)).findUserById(userId);
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
     }
 
     @Test
@@ -223,4 +232,67 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).findUserById(userId);
         verify(userRepository, never()).delete(any(User.class));
     }
+
+    @Test
+    void updateUser_WithOwnEmail_ShouldNotTreatItAsDuplicate() {
+        Long userId = 1L;
+        User existingUser = new User(userId, "John Doe", "john@example.com");
+        UserDto updateDto = new UserDto();
+        updateDto.setEmail("john@example.com");
+
+        when(userRepository.findUserById(userId)).thenReturn(existingUser);
+        when(userRepository.existsByEmailAndIdNot("john@example.com", userId)).thenReturn(false);
+        when(userRepository.saveAndFlush(existingUser)).thenReturn(existingUser);
+
+        UserDto result = userService.updateUser(userId, updateDto);
+
+        assertEquals("john@example.com", result.getEmail());
+        verify(userRepository, never()).findAll();
+        verify(emailRegistry).onSaved(existingUser, "john@example.com");
+    }
+
+    @Test
+    void createUser_WhenRegistryRulesEmailOut_ShouldNotQueryDatabase() {
+        UserDto userDto = new UserDto();
+        userDto.setName("John Doe");
+        userDto.setEmail("john@example.com");
+        User savedUser = new User(1L, "John Doe", "john@example.com");
+
+        when(emailRegistry.mightBeTaken("john@example.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
+
+        userService.createUser(userDto);
+
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(emailRegistry).onSaved(savedUser, null);
+    }
+
+    @Test
+    void updateUser_WhenConstraintViolatedConcurrently_ShouldThrowDuplicateException() {
+        Long userId = 1L;
+        User existingUser = new User(userId, "John Doe", "john@example.com");
+        UserDto updateDto = new UserDto();
+        updateDto.setEmail("other@example.com");
+
+        when(userRepository.findUserById(userId)).thenReturn(existingUser);
+        when(userRepository.existsByEmailAndIdNot(anyString(), anyLong())).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("could not execute",
+                new RuntimeException("Unique index or primary key violation: \"PUBLIC.UQ_USER_EMAIL_INDEX_2\"")));
+
+        assertThrows(DuplicateException.class, () -> userService.updateUser(userId, updateDto));
+        verify(emailRegistry, never()).onSaved(any(), any());
+    }
+
+    @Test
+    void createUser_WhenOtherConstraintViolated_ShouldRethrow() {
+        UserDto userDto = new UserDto();
+        userDto.setName("John Doe");
+        userDto.setEmail("john@example.com");
+
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class)))
+                .thenThrow(new DataIntegrityViolationException("NULL not allowed for column \"NAME\""));
+
+        assertThrows(DataIntegrityViolationException.class, () -> userService.createUser(userDto));
+    }
 }